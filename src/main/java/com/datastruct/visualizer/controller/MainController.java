@@ -91,6 +91,16 @@ public class MainController implements Initializable {
     
     // 数据模型
     private Graph currentGraph;
+    // 未修改的图上重复运行算法时直接复用结果（图修改后自动失效）
+    private final AlgorithmResultCache resultCache = new AlgorithmResultCache();
+    // 当前无向图的最小生成森林，随图的修改增量维护（首次运行 Kruskal 时创建）
+    private DynamicMST dynamicMst;
+    // 当前图的结构属性（边权、无环性、连通分量），随图的修改增量维护
+    private GraphPropertyIndex propertyIndex;
+    // DSL 最近一次 RUN_DIJKSTRA 的源点上的最短路径，随图的修改局部修复（同一源点第二次运行时创建）
+    private DynamicShortestPaths shortestPaths;
+    // 当前图上 DSL 最近一次完整运行 Dijkstra 的源点，-1 表示没有
+    private int lastDslDijkstraSource = -1;
     private SortingAlgorithm currentSortingAlgorithm;
     private List<SortingStep> currentSortingSteps;
     private int currentStepIndex;
@@ -299,7 +309,11 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
         try {
             JsonNode node = jsonMapper.readTree(content);
             if (node.path("undo").asBoolean(false)) {
-                // TODO: implement undo logic
+                undoLastDslEdit();
+                return;
+            }
+            if (node.path("redo").asBoolean(false)) {
+                redoLastDslEdit();
                 return;
             }
             String dsl = node.path("dsl").asText(null);
@@ -317,28 +331,121 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
         }
     }
 
+    /**
+     * 替换当前图：旧图的缓存结果与增量结构随之释放，不再监听或引用旧图
+     */
+    private void setCurrentGraph(Graph graph) {
+        Graph old = currentGraph;
+        if (old != null && old != graph) {
+            resultCache.invalidate(old);
+            if (dynamicMst != null) {
+                dynamicMst.close();
+                dynamicMst = null;
+            }
+            if (propertyIndex != null) {
+                propertyIndex.close();
+                propertyIndex = null;
+            }
+            if (shortestPaths != null) {
+                shortestPaths.close();
+                shortestPaths = null;
+            }
+            lastDslDijkstraSource = -1;
+        }
+        currentGraph = graph;
+    }
+
+    /**
+     * 开始一批会修改图的 DSL 编辑：当前图首次参与时转换为 VersionedGraph（O(V + E)，保留邻接矩阵语义），
+     * 之后每批只需 O(1) 记录一个撤销点。没有当前图时返回 null。
+     */
+    private VersionedGraph beginUndoableEdit() {
+        if (currentGraph == null) return null;
+        if (!(currentGraph instanceof VersionedGraph)) {
+            setCurrentGraph(VersionedGraph.of(currentGraph));
+            if (graphVisualizationPane != null) graphVisualizationPane.setGraph(currentGraph);
+        }
+        VersionedGraph versioned = (VersionedGraph) currentGraph;
+        versioned.checkpoint();
+        return versioned;
+    }
+
+    private void undoLastDslEdit() {
+        if (currentGraph instanceof VersionedGraph versioned && versioned.undo()) {
+            refreshAfterHistoryChange();
+            appendChat("↩️ 已撤销上一次编辑");
+        } else {
+            appendChat("⚠️ 没有可撤销的编辑");
+        }
+    }
+
+    private void redoLastDslEdit() {
+        if (currentGraph instanceof VersionedGraph versioned && versioned.redo()) {
+            refreshAfterHistoryChange();
+            appendChat("↪️ 已重做上一次编辑");
+        } else {
+            appendChat("⚠️ 没有可重做的编辑");
+        }
+    }
+
+    private void refreshAfterHistoryChange() {
+        if (graphAnimation != null && isGraphAnimationRunning) {
+            graphAnimation.stop();
+            isGraphAnimationRunning = false;
+        }
+        if (graphVisualizationPane != null) {
+            graphVisualizationPane.clearHighlights();
+            graphVisualizationPane.setGraph(currentGraph);
+        }
+        updateGraphInfo();
+        lastSelectedVertex = -1;
+    }
+
     private void executeDslString(String dsl) {
         try {
-            boolean graphBuilt = false;
+            Graph parsed = null;
             try {
-                Graph g = com.datastruct.visualizer.util.DslParser.parseGraph(dsl);
-                this.currentGraph = g;
+                parsed = com.datastruct.visualizer.util.DslParser.parseGraph(dsl);
+            } catch (Exception ignore) {
+                // not a full graph block, may just be commands
+            }
+            // 整批 DSL 作为一个撤销单位；只运行算法的批次不包装当前图，也不记录撤销点
+            VersionedGraph versioned = parsed != null || hasEditCommands(dsl) ? beginUndoableEdit() : null;
+            if (parsed != null) {
+                Graph g;
+                if (versioned != null) {
+                    versioned.replaceWith(parsed);
+                    g = versioned;
+                } else {
+                    g = VersionedGraph.of(parsed);
+                }
+                setCurrentGraph(g);
                 if (graphVisualizationPane == null) {
                     graphVisualizationPane = new GraphVisualizationPane();
                     if (graphContainer != null) graphContainer.getChildren().setAll(graphVisualizationPane);
                 }
                 graphVisualizationPane.setGraph(g);
-                graphBuilt = true;
-            } catch (Exception ignore) {
-                // not a full graph block, may just be commands
             }
             // 无论是否重建图，都尝试解析并执行命令
             processDslCommands(dsl);
+            // 编辑命令没有实际改变图时不保留撤销点
+            if (versioned != null) versioned.discardUnchangedCheckpoint();
         } catch (Exception ex) {
             appendChat("⚠️ DSL 执行失败:" + ex.getMessage());
         }
     }
 
+    // 批次中是否有修改图的命令（与 processDslCommands 的匹配规则一致）
+    private static boolean hasEditCommands(String dsl) {
+        for (String raw : dsl.split("\\r?\\n")) {
+            String line = raw.trim();
+            if (CMD_ADD_EDGE.matcher(line).matches() || CMD_REMOVE_EDGE.matcher(line).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void processDslCommands(String dsl) {
         if (currentGraph == null) return;
         String[] lines = dsl.split("\\r?\\n");
@@ -351,8 +458,8 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
                 int u = Integer.parseInt(m.group(1));
                 int v = Integer.parseInt(m.group(2));
                 double w = m.group(3) == null ? 1.0 : Double.parseDouble(m.group(3));
+                // 可视化面板监听图的修改事件，自动重绘
                 currentGraph.addEdge(u, v, w);
-                graphVisualizationPane.setGraph(currentGraph);
                 continue;
             }
             m = CMD_REMOVE_EDGE.matcher(line);
@@ -360,7 +467,6 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
                 int u = Integer.parseInt(m.group(1));
                 int v = Integer.parseInt(m.group(2));
                 currentGraph.removeEdge(u, v);
-                graphVisualizationPane.setGraph(currentGraph);
                 continue;
             }
             m = CMD_RUN_DFS.matcher(line);
@@ -378,12 +484,7 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
             m = CMD_RUN_DIJ.matcher(line);
             if (m.matches()) {
                 int s = Integer.parseInt(m.group(1));
-                if (m.group(2) != null) {
-                    int t = Integer.parseInt(m.group(2));
-                    runGraphAlgorithm("Dijkstra", s, t);
-                } else {
-                    runGraphAlgorithm("Dijkstra", s);
-                }
+                runDslDijkstra(s, m.group(2) != null ? Integer.parseInt(m.group(2)) : -1);
                 continue;
             }
             m = CMD_RUN_MST.matcher(line);
@@ -428,9 +529,9 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
             boolean isDirected = directedCheckBox == null ? true : directedCheckBox.isSelected();
             
             if ("邻接矩阵".equals(graphType)) {
-                currentGraph = new AdjacencyMatrix(numVertices, isDirected);
+                setCurrentGraph(new AdjacencyMatrix(numVertices, isDirected));
             } else {
-                currentGraph = new AdjacencyList(numVertices, isDirected);
+                setCurrentGraph(new AdjacencyList(numVertices, isDirected));
             }
 
             // 统一标签为索引
@@ -627,11 +728,15 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
                             }
                         }
 
-                        // 检查是否存在负权边，若存在使用 Bellman-Ford，否则使用 Dijkstra
-                        boolean hasNegative = currentGraph.getAllEdges().stream().anyMatch(e -> e.getWeight() < 0);
+                        // 存在负权边时由属性索引选择算法（无环图按拓扑序松弛，否则 Bellman-Ford），否则使用 Dijkstra
+                        GraphPropertyIndex properties = currentProperties();
+                        boolean hasNegative = properties.hasNegativeWeight();
 
                         if (hasNegative) {
-                            MST.ShortestPathResult res = MST.bellmanFord(currentGraph, startVertex);
+                            ShortestPathPlanner.Strategy strategy = ShortestPathPlanner.plan(properties);
+                            MST.ShortestPathResult res = resultCache.get(currentGraph, strategy.name(), startVertex, -1,
+                                    () -> ShortestPathPlanner.run(strategy, properties, startVertex),
+                                    r -> 64 + 12L * currentGraph.getNumVertices());
                             if (res.hasNegativeCycle()) {
                                 showAlert("错误", "检测到负权回路，最短路径不可确定");
                                 return;
@@ -644,14 +749,14 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
                                     return;
                                 }
 
-                                animatePath(path, "Bellman-Ford", res.getDistances()[targetVertex]);
+                                animatePath(path, strategy.getDisplayName(), res.getDistances()[targetVertex]);
                             } else {
                                 // 仅提示算法完成，不显示路径
-                                showAlert("信息", "Bellman-Ford 计算完成：已生成从 " + startVertex + " 到所有顶点的最短距离");
+                                showAlert("信息", strategy.getDisplayName() + " 计算完成：已生成从 " + startVertex + " 到所有顶点的最短距离");
                             }
                         } else {
                             // Dijkstra（使用带步骤的实现以便可视化生成过程）
-                            MST.DijkstraResultWithSteps res = MST.dijkstraWithSteps(currentGraph, startVertex, targetVertex);
+                            MST.DijkstraResultWithSteps res = resultCache.dijkstraWithSteps(currentGraph, startVertex, targetVertex);
                             // 填充表格并切换至“迭代表”标签
                             if (dijkstraTablePane != null) {
                                 dijkstraTablePane.setData(res.getSnapshots(), currentGraph.getNumVertices());
@@ -969,57 +1074,20 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
 
     // MST 可视化：项目保留 Kruskal 实现
 
+    // Kruskal 过程中的一步：考虑一条边（accepted = false），或把它加入 MST（accepted = true）
+    private static final class EdgeAction {
+        final Edge edge;
+        final boolean accepted;
+        EdgeAction(Edge edge, boolean accepted) { this.edge = edge; this.accepted = accepted; }
+    }
+
     /**
      * Kruskal 可视化：按权重排序所有边，依次考虑每条边并展示是否被加入 MST
      */
     private void animateKruskal() {
-        class EdgeAction {
-            Edge edge;
-            boolean accepted;
-            EdgeAction(Edge edge, boolean accepted) { this.edge = edge; this.accepted = accepted; }
-        }
-
-        List<EdgeAction> actions = new ArrayList<>();
-
-        // 取所有边并按权重排序
-        List<Edge> allEdges = new ArrayList<>(currentGraph.getAllEdges());
-        allEdges.sort(Comparator.comparingDouble(Edge::getWeight));
-
-        // 本地并查集实现
-        class UF {
-            private int[] parent;
-            public UF(int n) { parent = new int[n]; for (int i = 0; i < n; i++) parent[i] = i; }
-            public int find(int x) { return parent[x]==x?x:(parent[x]=find(parent[x])); }
-            public boolean union(int a, int b) {
-                int ra = find(a), rb = find(b);
-                if (ra == rb) return false;
-                parent[ra] = rb; return true;
-            }
-        }
-
-        UF uf = new UF(currentGraph.getNumVertices());
-        List<Edge> mst = new ArrayList<>();
-
-        for (int j = 0; j < allEdges.size(); j++) {
-            Edge e = allEdges.get(j);
-            int u = e.getSource();
-            int v = e.getDestination();
-
-            // 记录为被考虑
-            actions.add(new EdgeAction(e, false));
-            // 快照为剩余边（j+1 到末尾）
-
-            // 若两端不连通，则接受
-            if (uf.union(u, v)) {
-                // union 返回 true 表示连接成功（即接受边）
-                actions.add(new EdgeAction(e, true));
-                mst.add(e);
-                // 接受后快照（相比考虑后仍相同）
-                if (mst.size() == currentGraph.getNumVertices() - 1) break;
-            } else {
-                // 被拒绝（已连通） -> 前面的 false step 已表示考虑
-            }
-        }
+        // 过程与结果只依赖图的内容，未修改时直接复用
+        List<EdgeAction> actions = resultCache.get(currentGraph, "kruskalTrace", -1, -1,
+                () -> Collections.unmodifiableList(buildKruskalActions(currentGraph)), list -> 64 + 48L * list.size());
 
     // 动画播放
     graphVisualizationPane.clearHighlights();
@@ -1029,7 +1097,7 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
     if (graphAnimation != null) graphAnimation.stop();
     Timeline timeline = new Timeline();
 
-        // 记录最终被接受为 MST 的边（在算法构建阶段已经收集到 mst 列表）
+        // 记录最终被接受为 MST 的边（总权重由 dynamicMst 直接给出）
         List<Edge> acceptedDuring = new ArrayList<>();
 
         for (int i = 0; i < actions.size(); i++) {
@@ -1062,7 +1130,7 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
             for (Edge ae : acceptedDuring) {
                 graphVisualizationPane.acceptEdge(ae);
             }
-            updateGraphInfo("Kruskal 完成，MST 权重=" + String.format("%.2f", MST.calculateMSTWeight(mst)));
+            updateGraphInfo("Kruskal 完成，MST 权重=" + String.format("%.2f", currentMst().getTotalWeight()));
             isGraphAnimationRunning = false;
             pauseButton.setText("暂停");
         });
@@ -1073,6 +1141,134 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
         pauseButton.setText("暂停");
         timeline.play();
     }
+
+    // 图被替换后为新图重新创建，并移除旧图上的监听器
+    private DynamicMST currentMst() {
+        if (dynamicMst == null || dynamicMst.getGraph() != currentGraph) {
+            if (dynamicMst != null) dynamicMst.close();
+            dynamicMst = new DynamicMST(currentGraph);
+        }
+        return dynamicMst;
+    }
+
+    // 同上，图被替换后重新创建
+    private GraphPropertyIndex currentProperties() {
+        if (propertyIndex == null || propertyIndex.getGraph() != currentGraph) {
+            if (propertyIndex != null) propertyIndex.close();
+            propertyIndex = new GraphPropertyIndex(currentGraph);
+        }
+        return propertyIndex;
+    }
+
+    // 按 (图, 源点) 保留一份；图被替换、换了源点或源点被删除后重新创建
+    private DynamicShortestPaths currentShortestPaths(int source) {
+        if (!tracksShortestPaths(source)) {
+            if (shortestPaths != null) shortestPaths.close();
+            shortestPaths = new DynamicShortestPaths(currentGraph, source);
+        }
+        return shortestPaths;
+    }
+
+    private boolean tracksShortestPaths(int source) {
+        return shortestPaths != null && shortestPaths.getGraph() == currentGraph
+                && shortestPaths.isValid() && shortestPaths.getSource() == source;
+    }
+
+    /**
+     * DSL 的 RUN_DIJKSTRA（target 为 -1 表示到所有顶点）。某个源点第一次运行时播放完整的生成过程；
+     * 同一源点再次运行时才为它建立增量最短路径，之后的运行（例如 ADD_EDGE 之后）直接使用
+     * 随每次修改局部修复的结果填充迭代表并展示，不再从头计算
+     */
+    private void runDslDijkstra(int source, int target) {
+        int n = currentGraph.getNumVertices();
+        boolean valid = source >= 0 && source < n && target < n;
+        if (!valid || (!tracksShortestPaths(source) && lastDslDijkstraSource != source)) {
+            // 首次运行（或索引越界，交给 runGraphAlgorithm 提示）
+            if (valid) lastDslDijkstraSource = source;
+            if (target >= 0) {
+                runGraphAlgorithm("Dijkstra", source, target);
+            } else {
+                runGraphAlgorithm("Dijkstra", source);
+            }
+            return;
+        }
+
+        DynamicShortestPaths paths = currentShortestPaths(source);
+        if (graphAnimation != null && isGraphAnimationRunning) {
+            graphAnimation.stop();
+            isGraphAnimationRunning = false;
+        }
+        MST.ShortestPathResult result = paths.toResult();
+        if (result.hasNegativeCycle()) {
+            showAlert("错误", "检测到负权回路，最短路径不可确定");
+            return;
+        }
+        String name = paths.getAlgorithmName();
+        showShortestPathTable(result, n);
+        if (target < 0) {
+            showShortestPathTree(result, source, name);
+            return;
+        }
+        double distance = result.getDistances()[target];
+        if (Double.isInfinite(distance)) {
+            showAlert("信息", "从 " + source + " 到 " + target + " 不可达");
+            return;
+        }
+        animatePath(result.getPath(target), name, distance);
+    }
+
+    // 用最短路径结果填充迭代表：只有最终状态一行，S 为所有可达顶点
+    private void showShortestPathTable(MST.ShortestPathResult result, int n) {
+        if (dijkstraTablePane == null) return;
+        double[] distances = result.getDistances();
+        Set<Integer> settled = new LinkedHashSet<>();
+        for (int v = 0; v < n; v++) {
+            if (!Double.isInfinite(distances[v])) settled.add(v);
+        }
+        dijkstraTablePane.setData(List.of(new DijkstraSnapshot(settled.size(), settled, distances, result.getPredecessors())), n);
+        if (dijkstraTableTab != null) {
+            mainTabPane.getSelectionModel().select(dijkstraTableTab);
+        }
+    }
+
+    // 高亮最短路径树：所有可达顶点以及每个顶点到其前驱的边
+    private void showShortestPathTree(MST.ShortestPathResult result, int source, String algorithmName) {
+        graphVisualizationPane.clearHighlights();
+        double[] distances = result.getDistances();
+        int[] prev = result.getPredecessors();
+        for (int v = 0; v < distances.length; v++) {
+            if (Double.isInfinite(distances[v])) continue;
+            graphVisualizationPane.highlightVertex(v);
+            if (prev[v] >= 0) {
+                graphVisualizationPane.highlightConsideredEdge(new Edge(prev[v], v, currentGraph.getWeight(prev[v], v)));
+            }
+        }
+        updateGraphInfo(algorithmName + " 计算完成：已生成从 " + source + " 到所有顶点的最短距离");
+    }
+
+    // 生成 Kruskal 的过程：每条边先记为被考虑，若两端不连通再记为被接受
+    private static List<EdgeAction> buildKruskalActions(Graph graph) {
+        List<EdgeAction> actions = new ArrayList<>();
+
+        // 取所有边并按权重排序
+        List<Edge> allEdges = new ArrayList<>(graph.getAllEdges());
+        allEdges.sort(Comparator.comparingDouble(Edge::getWeight));
+
+        UnionFind uf = new UnionFind(graph.getNumVertices());
+        int accepted = 0;
+
+        for (Edge e : allEdges) {
+            // 记录为被考虑
+            actions.add(new EdgeAction(e, false));
+
+            // 若两端不连通，则接受（union 返回 true 表示连接成功）
+            if (uf.union(e.getSource(), e.getDestination())) {
+                actions.add(new EdgeAction(e, true));
+                if (++accepted == graph.getNumVertices() - 1) break;
+            }
+        }
+        return actions;
+    }
     
     // 排序相关方法
     @FXML
@@ -1282,11 +1478,11 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
                 
                 if ("graph".equals(fileType)) {
                     // 加载图数据
-                    currentGraph = DataSerializer.loadGraph(file);
+                    setCurrentGraph(DataSerializer.loadGraph(file));
                     
                     // 更新UI
                     numVerticesField.setText(String.valueOf(currentGraph.getNumVertices()));
-                    graphTypeCombo.setValue(currentGraph instanceof AdjacencyMatrix ? "邻接矩阵" : "邻接表");
+                    graphTypeCombo.setValue(currentGraph.isMatrixBacked() ? "邻接矩阵" : "邻接表");
                     if (directedCheckBox != null) {
                         directedCheckBox.setSelected(currentGraph.isDirected());
                     }
@@ -1348,7 +1544,7 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
             // 旧版 graph { } 块语法
             try {
                 Graph g = com.datastruct.visualizer.util.DslParser.parseGraph(trimmed);
-                currentGraph = g;
+                setCurrentGraph(g);
                 currentGraph.resetVertexLabelsToIndex();
                 graphVisualizationPane.setGraph(g);
                 updateGraphInfo();
@@ -1422,10 +1618,8 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
                         runGraphAlgorithm();
                     }
                     case RUN_DIJKSTRA -> {
-                        graphAlgorithmCombo.setValue("最短路径生成");
-                        startVertexField.setText(cmd.args[0]);
-                        targetVertexField.setText(cmd.args[1]);
-                        runGraphAlgorithm();
+                        ensureGraph();
+                        runDslDijkstra(Integer.parseInt(cmd.args[0]), Integer.parseInt(cmd.args[1]));
                     }
                     case RUN_MST -> {
                         graphAlgorithmCombo.setValue("最小生成树(Kruskal)");
@@ -1464,10 +1658,10 @@ graph {\n  type adjacency_list\n  directed true\n  vertices <N>\n  ...指令...\
         
         StringBuilder info = new StringBuilder();
         info.append("图信息:\\n");
-        info.append("类型: ").append(currentGraph instanceof AdjacencyMatrix ? "邻接矩阵" : "邻接表").append("\\n");
+        info.append("类型: ").append(currentGraph.isMatrixBacked() ? "邻接矩阵" : "邻接表").append("\\n");
         info.append("顶点数: ").append(currentGraph.getNumVertices()).append("\\n");
         info.append("是否有向: ").append(currentGraph.isDirected() ? "是" : "否").append("\\n");
-        info.append("边数: ").append(currentGraph.getAllEdges().size()).append("\\n");
+        info.append("边数: ").append(currentGraph.getNumEdges()).append("\\n");
         
         if (additionalInfo != null) {
             info.append("\\n").append(additionalInfo);
@@ -5,10 +5,14 @@ import java.util.*;
 /**
  * 邻接表存储的图
  * Graph implemented with adjacency list
+ *
+ * 每个顶点的出边保存在一个 AdjacencyRow 中（目标顶点与权重的原始数组）。
+ * 高度数顶点的行会自动建立哈希索引，addEdge/hasEdge/getWeight/removeEdge 均为 O(1)。
  */
 public class AdjacencyList extends Graph {
     
-    private List<List<EdgeNode>> adjacencyList;
+    private List<AdjacencyRow> adjacencyList;
+    private int edgeCount;
     
     public AdjacencyList(int numVertices, boolean isDirected) {
         super(numVertices, isDirected);
@@ -16,7 +20,7 @@ public class AdjacencyList extends Graph {
         
         // 初始化邻接表
         for (int i = 0; i < numVertices; i++) {
-            adjacencyList.add(new ArrayList<>());
+            adjacencyList.add(new AdjacencyRow());
         }
     }
     
@@ -26,33 +30,21 @@ public class AdjacencyList extends Graph {
             throw new IllegalArgumentException("顶点索引无效");
         }
         
-        // 检查边是否已存在
-        List<EdgeNode> sourceList = adjacencyList.get(source);
-        for (EdgeNode node : sourceList) {
-            if (node.vertex == destination) {
-                node.weight = weight; // 更新权重
-                return;
-            }
+        // 添加新边，已存在时更新权重
+        AdjacencyRow row = adjacencyList.get(source);
+        int slot = row.find(destination);
+        double oldWeight = slot >= 0 ? row.weightAt(slot) : Double.NaN;
+        if (row.put(destination, weight)) {
+            edgeCount++;
         }
         
-        // 添加新边
-        sourceList.add(new EdgeNode(destination, weight));
-        
-        // 如果是无向图，添加反向边
-        if (!isDirected) {
-            List<EdgeNode> destList = adjacencyList.get(destination);
-            boolean found = false;
-            for (EdgeNode node : destList) {
-                if (node.vertex == source) {
-                    node.weight = weight;
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
-                destList.add(new EdgeNode(source, weight));
+        // 如果是无向图，添加（或更新）反向边
+        if (!isDirected && source != destination) {
+            if (adjacencyList.get(destination).put(source, weight)) {
+                edgeCount++;
             }
         }
+        fireEdgeChange(source, destination, slot >= 0, oldWeight, true, weight);
     }
     
     @Override
@@ -62,14 +54,20 @@ public class AdjacencyList extends Graph {
         }
         
         // 移除正向边
-        List<EdgeNode> sourceList = adjacencyList.get(source);
-        sourceList.removeIf(node -> node.vertex == destination);
+        AdjacencyRow row = adjacencyList.get(source);
+        int slot = row.find(destination);
+        double oldWeight = slot >= 0 ? row.weightAt(slot) : Double.NaN;
+        if (row.remove(destination)) {
+            edgeCount--;
+        }
         
         // 如果是无向图，移除反向边
-        if (!isDirected) {
-            List<EdgeNode> destList = adjacencyList.get(destination);
-            destList.removeIf(node -> node.vertex == source);
+        if (!isDirected && source != destination) {
+            if (adjacencyList.get(destination).remove(source)) {
+                edgeCount--;
+            }
         }
+        fireEdgeChange(source, destination, slot >= 0, oldWeight, false, Double.NaN);
     }
     
     @Override
@@ -78,8 +76,7 @@ public class AdjacencyList extends Graph {
             return false;
         }
         
-        List<EdgeNode> sourceList = adjacencyList.get(source);
-        return sourceList.stream().anyMatch(node -> node.vertex == destination);
+        return adjacencyList.get(source).find(destination) >= 0;
     }
     
     @Override
@@ -88,13 +85,9 @@ public class AdjacencyList extends Graph {
             return Double.MAX_VALUE;
         }
         
-        List<EdgeNode> sourceList = adjacencyList.get(source);
-        for (EdgeNode node : sourceList) {
-            if (node.vertex == destination) {
-                return node.weight;
-            }
-        }
-        return Double.MAX_VALUE;
+        AdjacencyRow row = adjacencyList.get(source);
+        int slot = row.find(destination);
+        return slot >= 0 ? row.weightAt(slot) : Double.MAX_VALUE;
     }
     
     @Override
@@ -103,33 +96,49 @@ public class AdjacencyList extends Graph {
             return new ArrayList<>();
         }
         
-        List<Integer> neighbors = new ArrayList<>();
-        for (EdgeNode node : adjacencyList.get(vertex)) {
-            neighbors.add(node.vertex);
+        AdjacencyRow row = adjacencyList.get(vertex);
+        List<Integer> neighbors = new ArrayList<>(row.size());
+        for (int i = 0; i < row.size(); i++) {
+            neighbors.add(row.targetAt(i));
         }
         return neighbors;
     }
     
+    @Override
+    public void forEachNeighbor(int vertex, NeighborVisitor visitor) {
+        if (!isValidVertex(vertex)) {
+            return;
+        }
+        
+        adjacencyList.get(vertex).forEach(visitor);
+    }
+    
     @Override
     public List<Edge> getAllEdges() {
-        List<Edge> edges = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>(edgeCount);
         
         for (int i = 0; i < numVertices; i++) {
-            for (EdgeNode node : adjacencyList.get(i)) {
-                edges.add(new Edge(i, node.vertex, node.weight));
+            AdjacencyRow row = adjacencyList.get(i);
+            for (int j = 0; j < row.size(); j++) {
+                edges.add(new Edge(i, row.targetAt(j), row.weightAt(j)));
             }
         }
         
         return edges;
     }
     
+    @Override
+    public int getNumEdges() {
+        return edgeCount;
+    }
+    
     // 获取邻接表的副本
     public List<List<EdgeNode>> getAdjacencyList() {
         List<List<EdgeNode>> copy = new ArrayList<>();
-        for (List<EdgeNode> list : adjacencyList) {
-            List<EdgeNode> listCopy = new ArrayList<>();
-            for (EdgeNode node : list) {
-                listCopy.add(new EdgeNode(node.vertex, node.weight));
+        for (AdjacencyRow row : adjacencyList) {
+            List<EdgeNode> listCopy = new ArrayList<>(row.size());
+            for (int j = 0; j < row.size(); j++) {
+                listCopy.add(new EdgeNode(row.targetAt(j), row.weightAt(j)));
             }
             copy.add(listCopy);
         }
@@ -141,13 +150,12 @@ public class AdjacencyList extends Graph {
         System.out.println("邻接表:");
         for (int i = 0; i < numVertices; i++) {
             System.out.print("顶点 " + getVertexLabel(i) + ": ");
-            List<EdgeNode> neighbors = adjacencyList.get(i);
-            if (neighbors.isEmpty()) {
+            AdjacencyRow neighbors = adjacencyList.get(i);
+            if (neighbors.size() == 0) {
                 System.out.print("无邻接顶点");
             } else {
                 for (int j = 0; j < neighbors.size(); j++) {
-                    EdgeNode node = neighbors.get(j);
-                    System.out.printf("%s(%.1f)", getVertexLabel(node.vertex), node.weight);
+                    System.out.printf("%s(%.1f)", getVertexLabel(neighbors.targetAt(j)), neighbors.weightAt(j));
                     if (j < neighbors.size() - 1) {
                         System.out.print(" -> ");
                     }
@@ -159,14 +167,15 @@ public class AdjacencyList extends Graph {
     
     @Override
     public void addVertex(String label) {
-        // 在邻接表末尾添加新的空列表
-        adjacencyList.add(new ArrayList<>());
+        // 在邻接表末尾添加新的空行
+        adjacencyList.add(new AdjacencyRow());
         
         // 更新顶点数
         numVertices++;
         
         // 强制标签与索引一致
         resetVertexLabelsToIndex();
+        fireVertexAdded(numVertices - 1);
     }
     
     @Override
@@ -180,20 +189,14 @@ public class AdjacencyList extends Graph {
         }
         
         // 1. 删除该顶点的邻接表
-        adjacencyList.remove(vertex);
-        
-        // 2. 从所有其他顶点的邻接表中移除指向该顶点的边
-        for (List<EdgeNode> list : adjacencyList) {
-            list.removeIf(node -> node.vertex == vertex);
-        }
+        edgeCount -= adjacencyList.remove(vertex).size();
         
-        // 3. 重新映射所有顶点索引：大于被删除索引的都要-1
-        for (List<EdgeNode> list : adjacencyList) {
-            for (EdgeNode node : list) {
-                if (node.vertex > vertex) {
-                    node.vertex--;
-                }
-            }
+        // 2. 从所有其他顶点的邻接表中移除指向该顶点的边，
+        // 3. 并重新映射所有顶点索引：大于被删除索引的都要-1
+        for (AdjacencyRow row : adjacencyList) {
+            int before = row.size();
+            row.removeAndShift(vertex);
+            edgeCount -= before - row.size();
         }
         
         // 4. 更新顶点数
@@ -202,6 +205,7 @@ public class AdjacencyList extends Graph {
         // 5. 重新映射顶点标签
         // 强制标签与索引一致
         resetVertexLabelsToIndex();
+        fireVertexRemoved(vertex);
     }
     
     /**
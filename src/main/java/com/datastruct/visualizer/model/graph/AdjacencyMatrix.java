@@ -1,26 +1,97 @@
 package com.datastruct.visualizer.model.graph;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * 邻接矩阵存储的图
  * Graph implemented with adjacency matrix
+ *
+ * 矩阵保存在一个按行优先排列的一维数组中，行跨度为 capacity（≥ numVertices），
+ * 容量不足时按比例扩容，因此逐个添加顶点的总代价为均摊 O(V²)。行跨度较小时翻倍；
+ * 超过 GROWTH_THRESHOLD 后每次只增大 1/4（格子数约为原来的 1.56 倍），
+ * 并且不超过当前可用的堆空间，避免大图扩容时闲置近 4 倍 n² 的内存。
+ * 由于格子用 int 下标访问，顶点数上限为 46340（46340² 仍小于 Integer.MAX_VALUE），超出时抛出 IllegalArgumentException。
+ * 另外为每一行维护一个占用位图（与 cells 中非 INFINITY 的格子一一对应），
+ * 邻接顶点和边的枚举按 64 位字扫描，不再逐格比较。
  */
 public class AdjacencyMatrix extends Graph {
     
-    private double[][] matrix;
     private static final double INFINITY = Double.MAX_VALUE;
+    private static final int MIN_CAPACITY = 4;
+    // capacity² 必须能用 int 索引
+    private static final int MAX_CAPACITY = 46340;
+    // 行跨度达到该值后改为按 1.25 倍扩容（1024² 个 double 为 8MB）
+    private static final int GROWTH_THRESHOLD = 1024;
+    
+    // cells[i * capacity + j] 为边 i -> j 的权重
+    private double[] cells;
+    private int capacity;
+    // occupancy[i * wordsPerRow + (j >>> 6)] 的第 (j & 63) 位表示格子 (i, j) 不为 INFINITY
+    private long[] occupancy;
+    private int wordsPerRow;
+    // 每行非对角线上的边数，以及全图的边数（与 getAllEdges().size() 一致）
+    private int[] rowDegree;
+    private int edgeCount;
     
     public AdjacencyMatrix(int numVertices, boolean isDirected) {
         super(numVertices, isDirected);
-        this.matrix = new double[numVertices][numVertices];
+        if (numVertices > MAX_CAPACITY) {
+            throw new IllegalArgumentException("邻接矩阵最多支持 " + MAX_CAPACITY + " 个顶点");
+        }
+        this.capacity = Math.max(numVertices, MIN_CAPACITY);
+        this.cells = new double[capacity * capacity];
+        this.wordsPerRow = wordsFor(capacity);
+        this.occupancy = new long[capacity * wordsPerRow];
+        this.rowDegree = new int[capacity];
         
-        // 初始化矩阵
+        // 初始化矩阵（对角线为 0，视为已占用）
         for (int i = 0; i < numVertices; i++) {
+            int row = i * capacity;
             for (int j = 0; j < numVertices; j++) {
-                matrix[i][j] = (i == j) ? 0 : INFINITY;
+                cells[row + j] = (i == j) ? 0 : INFINITY;
             }
+            setBit(i, i);
+        }
+    }
+    
+    private int index(int row, int col) {
+        return row * capacity + col;
+    }
+    
+    private static int wordsFor(int columns) {
+        return (columns + 63) >>> 6;
+    }
+    
+    private boolean testBit(int row, int col) {
+        return (occupancy[row * wordsPerRow + (col >>> 6)] & (1L << col)) != 0;
+    }
+    
+    private void setBit(int row, int col) {
+        occupancy[row * wordsPerRow + (col >>> 6)] |= 1L << col;
+    }
+    
+    private void clearBit(int row, int col) {
+        occupancy[row * wordsPerRow + (col >>> 6)] &= ~(1L << col);
+    }
+    
+    // 写入一个格子，并同步占用位图与边计数
+    private void setCell(int row, int col, double weight) {
+        cells[index(row, col)] = weight;
+        boolean wasSet = testBit(row, col);
+        boolean isSet = weight != INFINITY;
+        if (wasSet == isSet) return;
+        
+        if (isSet) {
+            setBit(row, col);
+        } else {
+            clearBit(row, col);
+        }
+        if (row != col) {
+            int delta = isSet ? 1 : -1;
+            rowDegree[row] += delta;
+            edgeCount += delta;
         }
     }
     
@@ -30,12 +101,15 @@ public class AdjacencyMatrix extends Graph {
             throw new IllegalArgumentException("顶点索引无效");
         }
         
-        matrix[source][destination] = weight;
+        boolean existed = testBit(source, destination);
+        double oldWeight = cells[index(source, destination)];
+        setCell(source, destination, weight);
         
         // 如果是无向图，添加反向边
         if (!isDirected) {
-            matrix[destination][source] = weight;
+            setCell(destination, source, weight);
         }
+        fireEdgeChange(source, destination, existed, oldWeight, weight != INFINITY, weight);
     }
     
     @Override
@@ -44,12 +118,15 @@ public class AdjacencyMatrix extends Graph {
             throw new IllegalArgumentException("顶点索引无效");
         }
         
-        matrix[source][destination] = INFINITY;
+        boolean existed = testBit(source, destination);
+        double oldWeight = cells[index(source, destination)];
+        setCell(source, destination, INFINITY);
         
         // 如果是无向图，移除反向边
         if (!isDirected) {
-            matrix[destination][source] = INFINITY;
+            setCell(destination, source, INFINITY);
         }
+        fireEdgeChange(source, destination, existed, oldWeight, false, INFINITY);
     }
     
     @Override
@@ -57,7 +134,7 @@ public class AdjacencyMatrix extends Graph {
         if (!isValidVertex(source) || !isValidVertex(destination)) {
             return false;
         }
-        return matrix[source][destination] != INFINITY;
+        return testBit(source, destination);
     }
     
     @Override
@@ -65,7 +142,7 @@ public class AdjacencyMatrix extends Graph {
         if (!isValidVertex(source) || !isValidVertex(destination)) {
             return INFINITY;
         }
-        return matrix[source][destination];
+        return cells[index(source, destination)];
     }
     
     @Override
@@ -75,34 +152,95 @@ public class AdjacencyMatrix extends Graph {
         }
         
         List<Integer> neighbors = new ArrayList<>();
-        for (int i = 0; i < numVertices; i++) {
-            if (matrix[vertex][i] != INFINITY) {
-                neighbors.add(i);
+        int base = vertex * wordsPerRow;
+        int words = wordsFor(numVertices);
+        for (int k = 0; k < words; k++) {
+            long word = occupancy[base + k];
+            while (word != 0) {
+                neighbors.add((k << 6) | Long.numberOfTrailingZeros(word));
+                word &= word - 1;
             }
         }
         return neighbors;
     }
     
+    @Override
+    public void forEachNeighbor(int vertex, NeighborVisitor visitor) {
+        if (!isValidVertex(vertex)) {
+            return;
+        }
+        
+        int row = vertex * capacity;
+        int base = vertex * wordsPerRow;
+        int words = wordsFor(numVertices);
+        for (int k = 0; k < words; k++) {
+            long word = occupancy[base + k];
+            while (word != 0) {
+                int col = (k << 6) | Long.numberOfTrailingZeros(word);
+                visitor.visit(col, cells[row + col]);
+                word &= word - 1;
+            }
+        }
+    }
+    
     @Override
     public List<Edge> getAllEdges() {
-        List<Edge> edges = new ArrayList<>();
+        List<Edge> edges = new ArrayList<>(edgeCount);
+        int words = wordsFor(numVertices);
         
         for (int i = 0; i < numVertices; i++) {
-            for (int j = 0; j < numVertices; j++) {
-                if (matrix[i][j] != INFINITY && i != j) {
-                    edges.add(new Edge(i, j, matrix[i][j]));
+            // 只有对角线的行直接跳过
+            if (rowDegree[i] == 0) continue;
+            int row = i * capacity;
+            int base = i * wordsPerRow;
+            for (int k = 0; k < words; k++) {
+                long word = occupancy[base + k];
+                while (word != 0) {
+                    int j = (k << 6) | Long.numberOfTrailingZeros(word);
+                    if (i != j) {
+                        edges.add(new Edge(i, j, cells[row + j]));
+                    }
+                    word &= word - 1;
                 }
             }
         }
         
         return edges;
     }
+
+    @Override
+    public void fillEdges(EdgeBuffer buffer) {
+        buffer.clear();
+        buffer.ensureCapacity(edgeCount);
+        int words = wordsFor(numVertices);
+
+        for (int i = 0; i < numVertices; i++) {
+            if (rowDegree[i] == 0) continue;
+            int row = i * capacity;
+            int base = i * wordsPerRow;
+            for (int k = 0; k < words; k++) {
+                long word = occupancy[base + k];
+                while (word != 0) {
+                    int j = (k << 6) | Long.numberOfTrailingZeros(word);
+                    if (i != j) {
+                        buffer.add(i, j, cells[row + j]);
+                    }
+                    word &= word - 1;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getNumEdges() {
+        return edgeCount;
+    }
     
     // 获取邻接矩阵的副本
     public double[][] getMatrix() {
         double[][] copy = new double[numVertices][numVertices];
         for (int i = 0; i < numVertices; i++) {
-            System.arraycopy(matrix[i], 0, copy[i], 0, numVertices);
+            System.arraycopy(cells, i * capacity, copy[i], 0, numVertices);
         }
         return copy;
     }
@@ -112,10 +250,11 @@ public class AdjacencyMatrix extends Graph {
         System.out.println("邻接矩阵:");
         for (int i = 0; i < numVertices; i++) {
             for (int j = 0; j < numVertices; j++) {
-                if (matrix[i][j] == INFINITY) {
+                double w = cells[index(i, j)];
+                if (w == INFINITY) {
                     System.out.print("∞\t");
                 } else {
-                    System.out.printf("%.1f\t", matrix[i][j]);
+                    System.out.printf("%.1f\t", w);
                 }
             }
             System.out.println();
@@ -124,29 +263,33 @@ public class AdjacencyMatrix extends Graph {
     
     @Override
     public void addVertex(String label) {
-        // 创建新的更大的矩阵
-        int newSize = numVertices + 1;
-        double[][] newMatrix = new double[newSize][newSize];
-        
-        // 复制原有数据
-        for (int i = 0; i < numVertices; i++) {
-            for (int j = 0; j < numVertices; j++) {
-                newMatrix[i][j] = matrix[i][j];
+        // 容量不足时按比例扩容（均摊 O(V)）
+        if (numVertices == capacity) {
+            if (capacity == MAX_CAPACITY) {
+                throw new IllegalArgumentException("邻接矩阵最多支持 " + MAX_CAPACITY + " 个顶点");
             }
+            grow(nextCapacity());
         }
         
         // 初始化新行和新列
-        for (int i = 0; i < newSize; i++) {
-            newMatrix[numVertices][i] = (i == numVertices) ? 0 : INFINITY;
-            newMatrix[i][numVertices] = (i == numVertices) ? 0 : INFINITY;
+        int n = numVertices;
+        int newRow = n * capacity;
+        for (int i = 0; i < n; i++) {
+            cells[newRow + i] = INFINITY;
+            cells[i * capacity + n] = INFINITY;
+            clearBit(i, n);
         }
+        cells[newRow + n] = 0;
+        Arrays.fill(occupancy, n * wordsPerRow, (n + 1) * wordsPerRow, 0L);
+        setBit(n, n);
+        rowDegree[n] = 0;
         
-        // 更新矩阵和顶点数
-        matrix = newMatrix;
-        numVertices = newSize;
+        // 更新顶点数
+        numVertices = n + 1;
         
         // 强制标签与索引一致
         resetVertexLabelsToIndex();
+        fireVertexAdded(n);
     }
     
     @Override
@@ -155,34 +298,109 @@ public class AdjacencyMatrix extends Graph {
             throw new IllegalArgumentException("顶点索引无效: " + vertex);
         }
         
-        // 创建新的更小的矩阵
         int newSize = numVertices - 1;
         if (newSize <= 0) {
             throw new IllegalArgumentException("无法删除最后一个顶点");
         }
         
-        double[][] newMatrix = new double[newSize][newSize];
-        
-        // 复制数据，跳过被删除的行和列
-        int newRow = 0;
+        // 先扣除与被删除顶点相关的边
+        edgeCount -= rowDegree[vertex];
         for (int i = 0; i < numVertices; i++) {
-            if (i == vertex) continue;
+            if (i != vertex && testBit(i, vertex)) {
+                rowDegree[i]--;
+                edgeCount--;
+            }
+        }
+        
+        // 原地移动数据，不重新分配矩阵：
+        // 1. 被删除行之后的所有行整体上移一行（行连续存放，一次拷贝即可）
+        int tailRows = numVertices - 1 - vertex;
+        if (tailRows > 0) {
+            System.arraycopy(cells, (vertex + 1) * capacity, cells, vertex * capacity, tailRows * capacity);
+            System.arraycopy(occupancy, (vertex + 1) * wordsPerRow, occupancy, vertex * wordsPerRow, tailRows * wordsPerRow);
+            System.arraycopy(rowDegree, vertex + 1, rowDegree, vertex, tailRows);
             
-            int newCol = 0;
-            for (int j = 0; j < numVertices; j++) {
-                if (j == vertex) continue;
-                newMatrix[newRow][newCol] = matrix[i][j];
-                newCol++;
+            // 2. 每一行中被删除列之后的元素左移一列
+            for (int i = 0; i < newSize; i++) {
+                int row = i * capacity;
+                System.arraycopy(cells, row + vertex + 1, cells, row + vertex, tailRows);
             }
-            newRow++;
+        }
+        // 位图即使删除的是最后一列也要清掉该列，避免残留的位被扫描到
+        for (int i = 0; i < newSize; i++) {
+            removeBitColumn(i, vertex);
         }
         
-        // 更新矩阵和顶点数
-        matrix = newMatrix;
+        // 更新顶点数
         numVertices = newSize;
         
         // 强制标签与索引一致
         resetVertexLabelsToIndex();
+        fireVertexRemoved(vertex);
+    }
+    
+    @Override
+    public boolean isMatrixBacked() {
+        return true;
     }
-}
 
+    /**
+     * 当前分配的行跨度（可容纳的顶点数）
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    // 供全源最短路径等算法直接按行读取底层存储：行跨度为 capacity，无边为 Double.MAX_VALUE（只读）
+    double[] cells() {
+        return cells;
+    }
+    
+    // 删除某一行位图中的第 col 位，其后的位整体右移一位（字级移位并传递进位）
+    private void removeBitColumn(int row, int col) {
+        int base = row * wordsPerRow;
+        int first = col >>> 6;
+        int words = wordsFor(numVertices);
+        long word = occupancy[base + first];
+        long lowMask = (1L << col) - 1;
+        occupancy[base + first] = (word & lowMask) | ((word >>> 1) & ~lowMask);
+        for (int k = first + 1; k < words; k++) {
+            long next = occupancy[base + k];
+            occupancy[base + k - 1] |= next << 63;
+            occupancy[base + k] = next >>> 1;
+        }
+    }
+    
+    // 下一次扩容的行跨度：小矩阵翻倍，大矩阵增大 1/4；预计超出可用堆空间时把增量逐次减半
+    private int nextCapacity() {
+        int step = capacity < GROWTH_THRESHOLD ? capacity : capacity >>> 2;
+        int target = (int) Math.min(MAX_CAPACITY, (long) capacity + step);
+        Runtime runtime = Runtime.getRuntime();
+        long available = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        while (target > capacity + 1 && bytesFor(target) > available) {
+            target = capacity + (target - capacity) / 2;
+        }
+        return target;
+    }
+
+    private static long bytesFor(int capacity) {
+        long size = capacity;
+        return size * size * Double.BYTES + size * wordsFor(capacity) * Long.BYTES + size * Integer.BYTES;
+    }
+
+    // 扩容到新的行跨度，仅复制已使用的 numVertices × numVertices 区域
+    private void grow(int newCapacity) {
+        double[] newCells = new double[newCapacity * newCapacity];
+        int newWordsPerRow = wordsFor(newCapacity);
+        long[] newOccupancy = new long[newCapacity * newWordsPerRow];
+        for (int i = 0; i < numVertices; i++) {
+            System.arraycopy(cells, i * capacity, newCells, i * newCapacity, numVertices);
+            System.arraycopy(occupancy, i * wordsPerRow, newOccupancy, i * newWordsPerRow, wordsPerRow);
+        }
+        cells = newCells;
+        occupancy = newOccupancy;
+        wordsPerRow = newWordsPerRow;
+        rowDegree = Arrays.copyOf(rowDegree, newCapacity);
+        capacity = newCapacity;
+    }
+}
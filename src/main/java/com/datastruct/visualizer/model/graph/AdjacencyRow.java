@@ -0,0 +1,135 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.Arrays;
+
+/**
+ * 邻接表中的一行：以并行的原始数组保存目标顶点与权重
+ * 度数较小时线性查找；超过 INDEX_THRESHOLD 后建立 IntSlotIndex（目标顶点 -> 槽位），
+ * 查找、更新与删除均为 O(1)。删除时用最后一个元素填补空位。
+ */
+final class AdjacencyRow {
+
+    static final int INDEX_THRESHOLD = 16;
+
+    private int[] targets;
+    private double[] weights;
+    private int size;
+    private IntSlotIndex index;
+
+    AdjacencyRow() {
+        this.targets = new int[4];
+        this.weights = new double[4];
+    }
+
+    int size() {
+        return size;
+    }
+
+    int targetAt(int slot) {
+        return targets[slot];
+    }
+
+    double weightAt(int slot) {
+        return weights[slot];
+    }
+
+    /**
+     * 目标顶点所在槽位，不存在返回 -1
+     */
+    int find(int target) {
+        if (index != null) {
+            return index.get(target);
+        }
+        for (int i = 0; i < size; i++) {
+            if (targets[i] == target) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * 添加或更新一条边，返回是否为新边
+     */
+    boolean put(int target, double weight) {
+        int slot = find(target);
+        if (slot >= 0) {
+            weights[slot] = weight;
+            return false;
+        }
+        if (size == targets.length) {
+            targets = Arrays.copyOf(targets, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        targets[size] = target;
+        weights[size] = weight;
+        if (index != null) {
+            index.put(target, size);
+        }
+        size++;
+        if (index == null && size > INDEX_THRESHOLD) {
+            rebuildIndex();
+        }
+        return true;
+    }
+
+    /**
+     * 删除一条边，返回是否存在该边
+     */
+    boolean remove(int target) {
+        int slot = find(target);
+        if (slot < 0) {
+            return false;
+        }
+        int last = size - 1;
+        if (slot != last) {
+            targets[slot] = targets[last];
+            weights[slot] = weights[last];
+            if (index != null) {
+                index.put(targets[slot], slot);
+            }
+        }
+        size = last;
+        if (index != null) {
+            index.remove(target);
+            // 度数明显下降后回退到线性查找，避免索引占用过多内存
+            if (size < INDEX_THRESHOLD / 2) {
+                index = null;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 删除指向 vertex 的边，并把所有大于 vertex 的目标顶点减一（用于删除顶点后的重新编号）
+     */
+    void removeAndShift(int vertex) {
+        int out = 0;
+        for (int i = 0; i < size; i++) {
+            int t = targets[i];
+            if (t == vertex) continue;
+            targets[out] = t > vertex ? t - 1 : t;
+            weights[out] = weights[i];
+            out++;
+        }
+        size = out;
+        if (index != null || size > INDEX_THRESHOLD) {
+            rebuildIndex();
+        }
+    }
+
+    void forEach(Graph.NeighborVisitor visitor) {
+        for (int i = 0; i < size; i++) {
+            visitor.visit(targets[i], weights[i]);
+        }
+    }
+
+    private void rebuildIndex() {
+        if (size <= INDEX_THRESHOLD / 2) {
+            index = null;
+            return;
+        }
+        index = new IntSlotIndex(size);
+        for (int i = 0; i < size; i++) {
+            index.put(targets[i], i);
+        }
+    }
+}
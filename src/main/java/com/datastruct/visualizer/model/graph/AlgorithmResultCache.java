@@ -0,0 +1,287 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * 算法结果缓存
+ * Bounded LRU cache of algorithm results keyed by (graph, version, algorithm, source, target)
+ *
+ * 同一张图在未修改时重复查询（界面重放、DSL 的 RUN_DIJKSTRA/RUN_MST、对话触发的运行）直接返回上次的结果。
+ * 键中包含图的修改版本号，图被修改后旧结果不会再命中；首次缓存某张图的结果时还会注册修改监听器，
+ * 修改发生时立即丢弃该图的所有条目。容量按条目数与估计的字节数双重限制，超出时淘汰最久未使用的条目。
+ * 一张图的最后一个条目被淘汰或失效时同时注销它的监听器，缓存不会因此长期持有已不再使用的图。
+ * 所有方法都是线程安全的；计算在锁外进行，计算期间图被修改则结果不会被缓存。
+ */
+public final class AlgorithmResultCache {
+
+    public static final String DIJKSTRA = "dijkstra";
+    public static final String DIJKSTRA_STEPS = "dijkstraWithSteps";
+    public static final String SPFA = "spfa";
+    public static final String KRUSKAL = "kruskal";
+
+    private static final int DEFAULT_MAX_ENTRIES = 256;
+    private static final long DEFAULT_MAX_WEIGHT = 64L << 20;
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // 有条目的图 -> 监听器及其条目数
+    private final Map<Graph, Watch> watches = new IdentityHashMap<>();
+    private long totalWeight;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public AlgorithmResultCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * @param maxEntries 最多缓存的条目数
+     * @param maxWeight  所有条目估计字节数之和的上限
+     */
+    public AlgorithmResultCache(int maxEntries, long maxWeight) {
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("缓存容量必须为正数");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /* ------------------ 常用算法 ------------------ */
+
+    public MST.ShortestPathResult dijkstra(Graph graph, int source) {
+        return get(graph, DIJKSTRA, source, -1, () -> MST.dijkstra(graph, source),
+                r -> 64 + 12L * graph.getNumVertices());
+    }
+
+    public MST.ShortestPathResult spfa(Graph graph, int source) {
+        return get(graph, SPFA, source, -1, () -> MST.spfa(graph, source),
+                r -> 64 + 12L * graph.getNumVertices());
+    }
+
+    public MST.DijkstraResultWithSteps dijkstraWithSteps(Graph graph, int source, int target) {
+        return get(graph, DIJKSTRA_STEPS, source, target, () -> MST.dijkstraWithSteps(graph, source, target),
+                r -> 64 + 48L * r.getSteps().size() + (long) r.getSnapshots().size() * 28 * graph.getNumVertices());
+    }
+
+    /**
+     * Kruskal 的边集（只读列表）
+     */
+    public List<Edge> kruskal(Graph graph) {
+        return get(graph, KRUSKAL, -1, -1, () -> Collections.unmodifiableList(new ArrayList<>(MST.kruskal(graph))),
+                r -> 64 + 40L * r.size());
+    }
+
+    /**
+     * 通用入口：命中则返回缓存的结果，否则调用 compute 计算并缓存。
+     * 结果会被多个调用方共享，应当是不可变的。weigher 估计结果占用的字节数。
+     */
+    public <T> T get(Graph graph, String algorithm, int source, int target,
+                     Supplier<? extends T> compute, ToLongFunction<? super T> weigher) {
+        Objects.requireNonNull(graph);
+        Objects.requireNonNull(algorithm);
+        long version = graph.getVersion();
+        Key key = new Key(graph, version, algorithm, source, target);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits++;
+                @SuppressWarnings("unchecked")
+                T value = (T) entry.value;
+                return value;
+            }
+            misses++;
+        }
+
+        T value = compute.get();
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        synchronized (this) {
+            // 计算期间图被修改，结果可能对应任一版本，不缓存
+            if (graph.getVersion() != version || weight > maxWeight) {
+                return value;
+            }
+            Entry old = entries.put(key, new Entry(value, weight));
+            if (old != null) {
+                totalWeight -= old.weight;
+            } else {
+                watch(graph).entries++;
+            }
+            totalWeight += weight;
+            evictIfNeeded();
+        }
+        return value;
+    }
+
+    /**
+     * 丢弃某张图的所有条目并停止监听它（替换或丢弃一张图时调用）
+     */
+    public synchronized void invalidate(Graph graph) {
+        removeEntriesOf(graph);
+    }
+
+    public synchronized void clear() {
+        for (Map.Entry<Graph, Watch> e : watches.entrySet()) {
+            e.getKey().removeChangeListener(e.getValue().listener);
+        }
+        watches.clear();
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), totalWeight);
+    }
+
+    // 缓存某张图的第一个条目时注册监听器，图一旦修改就丢弃它的条目
+    private Watch watch(Graph graph) {
+        Watch watch = watches.get(graph);
+        if (watch == null) {
+            GraphChangeListener listener = event -> {
+                synchronized (AlgorithmResultCache.this) {
+                    removeEntriesOf(event.getGraph());
+                }
+            };
+            watch = new Watch(listener);
+            watches.put(graph, watch);
+            graph.addChangeListener(listener);
+        }
+        return watch;
+    }
+
+    // 图的条目减少一个；没有条目后注销监听器，不再引用这张图
+    private void release(Graph graph) {
+        Watch watch = watches.get(graph);
+        if (watch != null && --watch.entries == 0) {
+            watches.remove(graph);
+            graph.removeChangeListener(watch.listener);
+        }
+    }
+
+    private void removeEntriesOf(Graph graph) {
+        if (!watches.containsKey(graph)) {
+            return;
+        }
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (e.getKey().graph == graph) {
+                totalWeight -= e.getValue().weight;
+                invalidations++;
+                it.remove();
+                release(graph);
+            }
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && it.hasNext()) {
+            Map.Entry<Key, Entry> eldest = it.next();
+            totalWeight -= eldest.getValue().weight;
+            evictions++;
+            it.remove();
+            release(eldest.getKey().graph);
+        }
+    }
+
+    /**
+     * 缓存统计的快照
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int entries;
+        private final long weight;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int entries, long weight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entries = entries;
+            this.weight = weight;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getInvalidations() { return invalidations; }
+        public int getEntries() { return entries; }
+        public long getWeight() { return weight; }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("命中 %d / 未命中 %d（命中率 %.1f%%），淘汰 %d，失效 %d，条目 %d，约 %d 字节",
+                    hits, misses, getHitRate() * 100, evictions, invalidations, entries, weight);
+        }
+    }
+
+    private static final class Watch {
+        final GraphChangeListener listener;
+        int entries;
+
+        Watch(GraphChangeListener listener) {
+            this.listener = listener;
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        final long weight;
+
+        Entry(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    // 图按引用（而不是 equals）区分
+    private static final class Key {
+        final Graph graph;
+        final long version;
+        final String algorithm;
+        final int source;
+        final int target;
+
+        Key(Graph graph, long version, String algorithm, int source, int target) {
+            this.graph = graph;
+            this.version = version;
+            this.algorithm = algorithm;
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return graph == other.graph && version == other.version && source == other.source
+                    && target == other.target && algorithm.equals(other.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = System.identityHashCode(graph);
+            h = 31 * h + Long.hashCode(version);
+            h = 31 * h + algorithm.hashCode();
+            h = 31 * h + source;
+            return 31 * h + target;
+        }
+    }
+}
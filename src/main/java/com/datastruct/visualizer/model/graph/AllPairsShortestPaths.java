@@ -0,0 +1,305 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 全源最短路径
+ * All-pairs shortest paths: tiled parallel Floyd-Warshall and Johnson's algorithm
+ *
+ * Floyd-Warshall 直接读取 AdjacencyMatrix 的底层数组（其他图按 forEachNeighbor 初始化），按 TILE × TILE 的块计算：
+ * 对每个主元块依次处理对角块、同行同列的块、其余所有块，后两个阶段中各块相互独立，并行执行。
+ * 每个块在计算前复制到线程私有的缓冲区，工作集只有三个块，与矩阵是否映射到文件无关。
+ * Johnson 算法先用带虚拟源点的 SPFA 求势函数 h，把边权改为 w + h(u) - h(v) ≥ 0，
+ * 再从每个源点并行运行 Dijkstra，适合稀疏图。没有负权边时跳过重新赋权，结果与 MST.dijkstra 完全一致。
+ */
+public final class AllPairsShortestPaths {
+
+    private static final int TILE = 64;
+
+    private AllPairsShortestPaths() {
+    }
+
+    /**
+     * 全源最短路径结果。存在负权回路时距离没有意义，getDistances 会抛出异常
+     */
+    public static final class Result {
+        private final DistanceMatrix distances;
+        private final boolean hasNegativeCycle;
+
+        Result(DistanceMatrix distances, boolean hasNegativeCycle) {
+            this.distances = distances;
+            this.hasNegativeCycle = hasNegativeCycle;
+        }
+
+        public boolean hasNegativeCycle() {
+            return hasNegativeCycle;
+        }
+
+        public DistanceMatrix getDistances() {
+            if (hasNegativeCycle) {
+                throw new IllegalStateException("图包含负权回路，距离不可确定");
+            }
+            return distances;
+        }
+    }
+
+    /**
+     * 按存储方式选择算法：矩阵语义的图（isMatrixBacked）用 Floyd-Warshall，其余用 Johnson
+     */
+    public static Result compute(Graph graph) {
+        if (graph.isMatrixBacked()) {
+            return floydWarshall(graph);
+        }
+        return johnson(graph);
+    }
+
+    /* ------------------ Floyd-Warshall ------------------ */
+
+    public static Result floydWarshall(Graph graph) {
+        int n = graph.getNumVertices();
+        DistanceMatrix out = DistanceMatrix.allocate(n);
+        Result result = floydWarshall(graph, ForkJoinPool.commonPool(), out);
+        if (result.hasNegativeCycle()) {
+            out.close();
+        }
+        return result;
+    }
+
+    /**
+     * 在调用方提供的矩阵（大小须等于顶点数）中计算
+     */
+    public static Result floydWarshall(Graph graph, ForkJoinPool pool, DistanceMatrix out) {
+        int n = graph.getNumVertices();
+        checkOutput(out, n);
+        Objects.requireNonNull(pool);
+
+        // 初始化：无边为 INFINITY；对角线为 0（与 getAllEdges 一致，邻接矩阵的对角线不视为边）
+        double[] row = new double[n];
+        if (graph instanceof AdjacencyMatrix matrix) {
+            double[] cells = matrix.cells();
+            int stride = matrix.getCapacity();
+            for (int i = 0; i < n; i++) {
+                int base = i * stride;
+                for (int j = 0; j < n; j++) {
+                    double w = cells[base + j];
+                    row[j] = w == Double.MAX_VALUE ? Double.POSITIVE_INFINITY : w;
+                }
+                row[i] = 0.0;
+                out.setRow(i, row);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                Arrays.fill(row, Double.POSITIVE_INFINITY);
+                graph.forEachNeighbor(i, (j, w) -> row[j] = Math.min(row[j], w));
+                row[i] = 0.0;
+                out.setRow(i, row);
+            }
+        }
+
+        int blocks = (n + TILE - 1) / TILE;
+        for (int kb = 0; kb < blocks; kb++) {
+            final int k = kb;
+            // 阶段 1：对角块
+            double[] pivot = new double[TILE * TILE];
+            int pivotSize = tileSize(kb, n);
+            out.readBlock(kb * TILE, kb * TILE, pivotSize, pivotSize, pivot, TILE);
+            relaxTile(pivot, pivot, pivot, pivotSize, pivotSize, pivotSize);
+            out.writeBlock(kb * TILE, kb * TILE, pivotSize, pivotSize, pivot, TILE);
+            if (blocks == 1) {
+                break;
+            }
+
+            // 阶段 2：与主元块同行、同列的块（前 blocks 个任务为行，其余为列）
+            pool.submit(() -> IntStream.range(0, 2 * blocks).parallel().forEach(task -> {
+                int b = task % blocks;
+                if (b == k) return;
+                double[] tile = new double[TILE * TILE];
+                if (task < blocks) {
+                    int cols = tileSize(b, n);
+                    out.readBlock(k * TILE, b * TILE, pivotSize, cols, tile, TILE);
+                    relaxTile(tile, pivot, tile, pivotSize, cols, pivotSize);
+                    out.writeBlock(k * TILE, b * TILE, pivotSize, cols, tile, TILE);
+                } else {
+                    int rows = tileSize(b, n);
+                    out.readBlock(b * TILE, k * TILE, rows, pivotSize, tile, TILE);
+                    relaxTile(tile, tile, pivot, rows, pivotSize, pivotSize);
+                    out.writeBlock(b * TILE, k * TILE, rows, pivotSize, tile, TILE);
+                }
+            })).join();
+
+            // 阶段 3：其余块，每个任务处理一行块
+            pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(ib -> {
+                if (ib == k) return;
+                int rows = tileSize(ib, n);
+                double[] left = new double[TILE * TILE];
+                double[] top = new double[TILE * TILE];
+                double[] tile = new double[TILE * TILE];
+                out.readBlock(ib * TILE, k * TILE, rows, pivotSize, left, TILE);
+                for (int jb = 0; jb < blocks; jb++) {
+                    if (jb == k) continue;
+                    int cols = tileSize(jb, n);
+                    out.readBlock(k * TILE, jb * TILE, pivotSize, cols, top, TILE);
+                    out.readBlock(ib * TILE, jb * TILE, rows, cols, tile, TILE);
+                    relaxTile(tile, left, top, rows, cols, pivotSize);
+                    out.writeBlock(ib * TILE, jb * TILE, rows, cols, tile, TILE);
+                }
+            })).join();
+        }
+
+        boolean negativeCycle = false;
+        for (int i = 0; i < n && !negativeCycle; i++) {
+            negativeCycle = out.get(i, i) < 0;
+        }
+        return new Result(out, negativeCycle);
+    }
+
+    private static int tileSize(int block, int n) {
+        return Math.min(TILE, n - block * TILE);
+    }
+
+    // c[i][j] = min(c[i][j], a[i][k] + b[k][j])，k 为外层循环；c 可以与 a 或 b 是同一个块
+    private static void relaxTile(double[] c, double[] a, double[] b, int rows, int cols, int depth) {
+        for (int k = 0; k < depth; k++) {
+            int kRow = k * TILE;
+            for (int i = 0; i < rows; i++) {
+                double aik = a[i * TILE + k];
+                if (aik == Double.POSITIVE_INFINITY) continue;
+                int iRow = i * TILE;
+                for (int j = 0; j < cols; j++) {
+                    double candidate = aik + b[kRow + j];
+                    if (candidate < c[iRow + j]) {
+                        c[iRow + j] = candidate;
+                    }
+                }
+            }
+        }
+    }
+
+    /* ------------------ Johnson ------------------ */
+
+    public static Result johnson(Graph graph) {
+        int n = graph.getNumVertices();
+        DistanceMatrix out = DistanceMatrix.allocate(n);
+        Result result = johnson(graph, ForkJoinPool.commonPool(), out);
+        if (result.hasNegativeCycle()) {
+            out.close();
+        }
+        return result;
+    }
+
+    public static Result johnson(Graph graph, ForkJoinPool pool, DistanceMatrix out) {
+        CompactAdjacency adj = CompactAdjacency.of(graph);
+        int n = adj.numVertices;
+        checkOutput(out, n);
+        Objects.requireNonNull(pool);
+
+        double[] h = new double[n];
+        double[] weights = adj.weights;
+        if (adj.hasNegativeWeight()) {
+            if (!potentials(adj, h)) {
+                return new Result(out, true);
+            }
+            // 重新赋权；舍入误差可能产生极小的负数，截断为 0
+            weights = new double[adj.numEdges()];
+            for (int u = 0; u < n; u++) {
+                for (int k = adj.offsets[u]; k < adj.offsets[u + 1]; k++) {
+                    weights[k] = Math.max(0.0, adj.weights[k] + h[u] - h[adj.targets[k]]);
+                }
+            }
+        }
+
+        // 源点分成若干段，每段复用一套工作数组
+        final double[] reweighted = weights;
+        int chunks = Math.max(1, Math.min(n, pool.getParallelism() * 4));
+        pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(c -> {
+            double[] dist = new double[n];
+            boolean[] settled = new boolean[n];
+            IndexedMinHeap heap = new IndexedDaryHeap(n);
+            long from = (long) n * c / chunks;
+            long to = (long) n * (c + 1) / chunks;
+            for (int s = (int) from; s < to; s++) {
+                dijkstra(adj, reweighted, s, dist, settled, heap);
+                for (int v = 0; v < n; v++) {
+                    if (dist[v] != Double.POSITIVE_INFINITY) {
+                        dist[v] = dist[v] - h[s] + h[v];
+                    }
+                }
+                out.setRow(s, dist);
+            }
+        })).join();
+        return new Result(out, false);
+    }
+
+    /**
+     * 等价于从一个到所有顶点都有 0 权边的虚拟源点运行 SPFA：所有顶点初始势为 0 并入队。
+     * 返回 false 表示存在负权回路
+     */
+    private static boolean potentials(CompactAdjacency adj, double[] h) {
+        int n = adj.numVertices;
+        int[] queue = new int[n];
+        boolean[] inQueue = new boolean[n];
+        // 路径边数（含虚拟源点的那条边），超过 n 说明有回路
+        int[] pathEdges = new int[n];
+        for (int v = 0; v < n; v++) {
+            queue[v] = v;
+            inQueue[v] = true;
+            pathEdges[v] = 1;
+        }
+        int head = 0;
+        int size = n;
+        while (size > 0) {
+            int u = queue[head];
+            head = head + 1 == n ? 0 : head + 1;
+            size--;
+            inQueue[u] = false;
+            for (int k = adj.offsets[u]; k < adj.offsets[u + 1]; k++) {
+                int v = adj.targets[k];
+                double alt = h[u] + adj.weights[k];
+                if (alt < h[v]) {
+                    h[v] = alt;
+                    pathEdges[v] = pathEdges[u] + 1;
+                    if (pathEdges[v] > n) {
+                        return false;
+                    }
+                    if (!inQueue[v]) {
+                        int tail = head + size;
+                        queue[tail >= n ? tail - n : tail] = v;
+                        inQueue[v] = true;
+                        size++;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void dijkstra(CompactAdjacency adj, double[] weights, int source,
+                                 double[] dist, boolean[] settled, IndexedMinHeap heap) {
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(settled, false);
+        dist[source] = 0.0;
+        heap.insert(source, 0.0);
+        while (!heap.isEmpty()) {
+            int u = heap.extractMin();
+            settled[u] = true;
+            double du = dist[u];
+            for (int k = adj.offsets[u]; k < adj.offsets[u + 1]; k++) {
+                int v = adj.targets[k];
+                if (settled[v]) continue;
+                double alt = du + weights[k];
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    heap.insertOrDecrease(v, alt);
+                }
+            }
+        }
+    }
+
+    private static void checkOutput(DistanceMatrix out, int n) {
+        if (out.size() != n) {
+            throw new IllegalArgumentException("距离矩阵大小与顶点数不一致");
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * 并行 Borůvka 最小生成森林
+ * Parallel Borůvka minimum spanning forest for undirected graphs
+ *
+ * 每一轮并行地为每个连通分量找出连向其他分量的最轻边（用 CAS 取最小值），
+ * 再并行地用无锁并查集合并这些边，并去掉两端已在同一分量中的边，至多 O(log V) 轮。
+ * 边按 (权重, 在 getAllEdges 中的位置) 全序比较，因此没有相同的键，选出的边不会成环，
+ * 结果与 MST.kruskal 的边集（包括方向与顺序）完全一致；非连通图返回每个连通分量的生成树。
+ */
+public final class BoruvkaMST {
+
+    private static final int NONE = -1;
+
+    private BoruvkaMST() {
+    }
+
+    public static List<Edge> minimumSpanningForest(Graph graph) {
+        return minimumSpanningForest(graph, ForkJoinPool.commonPool());
+    }
+
+    public static List<Edge> minimumSpanningForest(Graph graph, ForkJoinPool pool) {
+        if (graph.isDirected()) {
+            throw new IllegalArgumentException("有向图无法构建最小生成树");
+        }
+        Objects.requireNonNull(pool);
+
+        // 无向图的每条边存了两个方向，只保留 u < v 的一份（自环不会出现在生成树中）
+        CompactAdjacency adj = CompactAdjacency.of(graph);
+        int n = adj.numVertices;
+        int m = 0;
+        for (int u = 0; u < n; u++) {
+            for (int k = adj.offsets[u]; k < adj.offsets[u + 1]; k++) {
+                if (u < adj.targets[k]) m++;
+            }
+        }
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        int next = 0;
+        for (int u = 0; u < n; u++) {
+            for (int k = adj.offsets[u]; k < adj.offsets[u + 1]; k++) {
+                if (u < adj.targets[k]) {
+                    sources[next] = u;
+                    targets[next] = adj.targets[k];
+                    weights[next] = adj.weights[k];
+                    next++;
+                }
+            }
+        }
+
+        ConcurrentUnionFind components = new ConcurrentUnionFind(n);
+        AtomicIntegerArray cheapest = new AtomicIntegerArray(n);
+        boolean[] selected = new boolean[m];
+        int[] active = IntStream.range(0, m).toArray();
+
+        while (active.length > 0) {
+            final int[] edges = active;
+            boolean[] merged = { false };
+            pool.submit(() -> {
+                IntStream.range(0, n).parallel().forEach(v -> cheapest.set(v, NONE));
+
+                // 1. 每个分量连向外部的最轻边
+                IntStream.range(0, edges.length).parallel().forEach(i -> {
+                    int e = edges[i];
+                    int a = components.find(sources[e]);
+                    int b = components.find(targets[e]);
+                    if (a != b) {
+                        offer(cheapest, a, e, weights);
+                        offer(cheapest, b, e, weights);
+                    }
+                });
+
+                // 2. 合并；同一条边可能同时是两个分量的最轻边，只有成功合并的一次记为选中
+                IntStream.range(0, n).parallel().forEach(v -> {
+                    int e = cheapest.get(v);
+                    if (e != NONE && components.union(sources[e], targets[e])) {
+                        selected[e] = true;
+                        merged[0] = true;
+                    }
+                });
+            }).join();
+            if (!merged[0]) {
+                break;
+            }
+            // 3. 去掉已成为分量内部的边
+            active = pool.submit(() -> Arrays.stream(edges).parallel()
+                    .filter(e -> components.find(sources[e]) != components.find(targets[e]))
+                    .toArray()).join();
+        }
+
+        // 按 Kruskal 的顺序输出：权重升序，相同权重按边的位置（List.sort 是稳定排序）
+        List<Integer> chosen = new ArrayList<>(Math.max(0, n - 1));
+        for (int e = 0; e < m; e++) {
+            if (selected[e]) chosen.add(e);
+        }
+        chosen.sort((x, y) -> Double.compare(weights[x], weights[y]));
+        List<Edge> forest = new ArrayList<>(chosen.size());
+        for (int e : chosen) {
+            forest.add(new Edge(sources[e], targets[e], weights[e]));
+        }
+        return forest;
+    }
+
+    // 用 CAS 把分量 c 的候选边更新为更轻的 e
+    private static void offer(AtomicIntegerArray cheapest, int c, int e, double[] weights) {
+        while (true) {
+            int current = cheapest.get(c);
+            if (current != NONE && !lighter(e, current, weights)) return;
+            if (cheapest.compareAndSet(c, current, e)) return;
+        }
+    }
+
+    private static boolean lighter(int a, int b, double[] weights) {
+        int cmp = Double.compare(weights[a], weights[b]);
+        return cmp < 0 || (cmp == 0 && a < b);
+    }
+}
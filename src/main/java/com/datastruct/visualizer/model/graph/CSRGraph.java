@@ -0,0 +1,292 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+
+/**
+ * 压缩稀疏行（CSR）存储的只读图
+ * Immutable graph stored in compressed sparse row form
+ *
+ * 顶点 v 的出边位于 targets/weights 的 [offsets[v], offsets[v + 1]) 区间，
+ * 每行按目标顶点升序排列，同一 (source, destination) 只保留最后一次出现的权重。
+ * 适合边数很大、以读为主的场景；所有修改操作均抛出 UnsupportedOperationException。
+ */
+public class CSRGraph extends Graph {
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    // getEdgeBuffer 的缓存（图不可变，只需构建一次）
+    private EdgeBuffer edgeBuffer;
+
+    private CSRGraph(int numVertices, boolean isDirected, int[] offsets, int[] targets, double[] weights) {
+        super(numVertices, isDirected);
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * 由任意已有的图构建 CSR 图（按原图的存储逐条复制边，并复制顶点标签）
+     */
+    public static CSRGraph fromGraph(Graph graph) {
+        Builder builder = new Builder(graph.getNumVertices(), graph.isDirected());
+        // 边集已包含无向图的双向边，这里不再补全反向边
+        EdgeBuffer edges = new EdgeBuffer(graph.getNumEdges());
+        graph.fillEdges(edges);
+        for (int i = 0; i < edges.size(); i++) {
+            builder.append(edges.sourceAt(i), edges.destinationAt(i), edges.weightAt(i));
+        }
+        CSRGraph csr = builder.build();
+        for (int i = 0; i < graph.getNumVertices(); i++) {
+            csr.setVertexLabel(i, graph.getVertexLabel(i));
+        }
+        return csr;
+    }
+
+    /**
+     * 构建反向图：原图的每条边 u -> v 变为 v -> u，权重不变（不复制标签）。
+     * 无向图的反向图与原图相同。用于在有向图上做反向搜索。
+     */
+    public static CSRGraph transposeOf(Graph graph) {
+        Builder builder = new Builder(graph.getNumVertices(), graph.isDirected());
+        EdgeBuffer edges = new EdgeBuffer(graph.getNumEdges());
+        graph.fillEdges(edges);
+        for (int i = 0; i < edges.size(); i++) {
+            builder.append(edges.destinationAt(i), edges.sourceAt(i), edges.weightAt(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 由边序列构建 CSR 图。无向图会自动补全反向边，重复的边以最后出现的权重为准。
+     */
+    public static CSRGraph fromEdges(int numVertices, boolean isDirected, Iterable<Edge> edges) {
+        Builder builder = new Builder(numVertices, isDirected);
+        for (Edge e : edges) {
+            builder.addEdge(e.getSource(), e.getDestination(), e.getWeight());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void addEdge(int source, int destination, double weight) {
+        throw new UnsupportedOperationException("CSR 图是只读的");
+    }
+
+    @Override
+    public void removeEdge(int source, int destination) {
+        throw new UnsupportedOperationException("CSR 图是只读的");
+    }
+
+    @Override
+    public boolean hasEdge(int source, int destination) {
+        if (!isValidVertex(source) || !isValidVertex(destination)) {
+            return false;
+        }
+        return indexOf(source, destination) >= 0;
+    }
+
+    @Override
+    public double getWeight(int source, int destination) {
+        if (!isValidVertex(source) || !isValidVertex(destination)) {
+            return Double.MAX_VALUE;
+        }
+        int idx = indexOf(source, destination);
+        return idx >= 0 ? weights[idx] : Double.MAX_VALUE;
+    }
+
+    @Override
+    public List<Integer> getNeighbors(int vertex) {
+        if (!isValidVertex(vertex)) {
+            return new ArrayList<>();
+        }
+
+        List<Integer> neighbors = new ArrayList<>(offsets[vertex + 1] - offsets[vertex]);
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+            neighbors.add(targets[i]);
+        }
+        return neighbors;
+    }
+
+    @Override
+    public void forEachNeighbor(int vertex, NeighborVisitor visitor) {
+        if (!isValidVertex(vertex)) {
+            return;
+        }
+        for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+            visitor.visit(targets[i], weights[i]);
+        }
+    }
+
+    @Override
+    public List<Edge> getAllEdges() {
+        List<Edge> edges = new ArrayList<>(targets.length);
+        for (int u = 0; u < numVertices; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                edges.add(new Edge(u, targets[i], weights[i]));
+            }
+        }
+        return edges;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return targets.length;
+    }
+
+    @Override
+    public void fillEdges(EdgeBuffer buffer) {
+        buffer.clear();
+        buffer.ensureCapacity(targets.length);
+        for (int u = 0; u < numVertices; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                buffer.add(u, targets[i], weights[i]);
+            }
+        }
+    }
+
+    @Override
+    public EdgeBuffer getEdgeBuffer() {
+        EdgeBuffer buffer = edgeBuffer;
+        if (buffer == null) {
+            buffer = super.getEdgeBuffer();
+            edgeBuffer = buffer;
+        }
+        return buffer;
+    }
+
+    @Override
+    public void addVertex(String label) {
+        throw new UnsupportedOperationException("CSR 图是只读的");
+    }
+
+    @Override
+    public void removeVertex(int vertex) {
+        throw new UnsupportedOperationException("CSR 图是只读的");
+    }
+
+    // 供 CompactAdjacency 共享底层数组（只读）
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    double[] weights() {
+        return weights;
+    }
+
+    /**
+     * 顶点的出度
+     */
+    public int getDegree(int vertex) {
+        if (!isValidVertex(vertex)) {
+            return 0;
+        }
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    // 在有序行内二分查找目标顶点，返回其在 targets 中的下标，未找到返回 -1
+    private int indexOf(int source, int destination) {
+        int idx = Arrays.binarySearch(targets, offsets[source], offsets[source + 1], destination);
+        return idx >= 0 ? idx : -1;
+    }
+
+    /**
+     * CSR 图构建器：先以原始数组收集边，build() 时按源点计数排序并在行内去重
+     */
+    public static class Builder {
+        private final int numVertices;
+        private final boolean isDirected;
+        private int[] sources = new int[16];
+        private int[] destinations = new int[16];
+        private double[] edgeWeights = new double[16];
+        private int size;
+
+        public Builder(int numVertices, boolean isDirected) {
+            if (numVertices < 0) {
+                throw new IllegalArgumentException("顶点数不能为负数");
+            }
+            this.numVertices = numVertices;
+            this.isDirected = isDirected;
+        }
+
+        public Builder addEdge(int source, int destination, double weight) {
+            if (source < 0 || source >= numVertices || destination < 0 || destination >= numVertices) {
+                throw new IllegalArgumentException("顶点索引无效");
+            }
+            append(source, destination, weight);
+            if (!isDirected && source != destination) {
+                append(destination, source, weight);
+            }
+            return this;
+        }
+
+        private void append(int source, int destination, double weight) {
+            if (size == sources.length) {
+                int newCapacity = sources.length * 2;
+                sources = Arrays.copyOf(sources, newCapacity);
+                destinations = Arrays.copyOf(destinations, newCapacity);
+                edgeWeights = Arrays.copyOf(edgeWeights, newCapacity);
+            }
+            sources[size] = source;
+            destinations[size] = destination;
+            edgeWeights[size] = weight;
+            size++;
+        }
+
+        public CSRGraph build() {
+            // 1. 按源点计数排序（稳定）
+            int[] offsets = new int[numVertices + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int v = 0; v < numVertices; v++) {
+                offsets[v + 1] += offsets[v];
+            }
+            int[] cursor = Arrays.copyOf(offsets, numVertices);
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                order[cursor[sources[i]]++] = i;
+            }
+
+            // 2. 行内按目标顶点排序；键的低 32 位为插入序号，保证相同目标时后插入者在后
+            int[] targets = new int[size];
+            double[] weights = new double[size];
+            int[] newOffsets = new int[numVertices + 1];
+            int out = 0;
+            long[] keys = new long[0];
+            for (int v = 0; v < numVertices; v++) {
+                int from = offsets[v];
+                int len = offsets[v + 1] - from;
+                newOffsets[v] = out;
+                if (len == 0) continue;
+                if (keys.length < len) keys = new long[Math.max(len, keys.length * 2)];
+                for (int i = 0; i < len; i++) {
+                    int edge = order[from + i];
+                    keys[i] = ((long) destinations[edge] << 32) | edge;
+                }
+                Arrays.sort(keys, 0, len);
+
+                // 3. 去重：同一目标只保留最后一次出现的权重
+                for (int i = 0; i < len; i++) {
+                    int edge = (int) keys[i];
+                    int target = (int) (keys[i] >>> 32);
+                    if (i + 1 < len && (int) (keys[i + 1] >>> 32) == target) continue;
+                    targets[out] = target;
+                    weights[out] = edgeWeights[edge];
+                    out++;
+                }
+            }
+            newOffsets[numVertices] = out;
+
+            if (out < size) {
+                targets = Arrays.copyOf(targets, out);
+                weights = Arrays.copyOf(weights, out);
+            }
+            return new CSRGraph(numVertices, isDirected, newOffsets, targets, weights);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.datastruct.visualizer.model.graph;
+
+/**
+ * 只读的压缩邻接数组（与 CSR 相同的布局），供并行算法直接按下标访问边。
+ * 顶点 u 的出边位于 [offsets[u], offsets[u + 1])，边集与 getAllEdges() 一致。
+ */
+final class CompactAdjacency {
+
+    final int numVertices;
+    final int[] offsets;
+    final int[] targets;
+    final double[] weights;
+
+    private CompactAdjacency(int numVertices, int[] offsets, int[] targets, double[] weights) {
+        this.numVertices = numVertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * 取图的一份快照（O(V + E)）；CSR 图本身不可变，直接共享其数组
+     */
+    static CompactAdjacency of(Graph graph) {
+        if (graph instanceof CSRGraph) {
+            CSRGraph csr = (CSRGraph) graph;
+            return new CompactAdjacency(csr.getNumVertices(), csr.offsets(), csr.targets(), csr.weights());
+        }
+        EdgeBuffer edges = new EdgeBuffer(graph.getNumEdges());
+        graph.fillEdges(edges);
+        // fillEdges 的结果按起点分组，但为了不依赖这一点，这里按起点计数排序
+        int n = graph.getNumVertices();
+        int m = edges.size();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            offsets[edges.sourceAt(i) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] cursor = new int[n];
+        System.arraycopy(offsets, 0, cursor, 0, n);
+        int[] targets = new int[m];
+        double[] weights = new double[m];
+        for (int i = 0; i < m; i++) {
+            int slot = cursor[edges.sourceAt(i)]++;
+            targets[slot] = edges.destinationAt(i);
+            weights[slot] = edges.weightAt(i);
+        }
+        return new CompactAdjacency(n, offsets, targets, weights);
+    }
+
+    int numEdges() {
+        return targets.length;
+    }
+
+    boolean hasNegativeWeight() {
+        for (double w : weights) {
+            if (w < 0) return true;
+        }
+        return false;
+    }
+
+    double maxWeight() {
+        double max = 0.0;
+        for (double w : weights) {
+            if (w > max) max = w;
+        }
+        return max;
+    }
+}
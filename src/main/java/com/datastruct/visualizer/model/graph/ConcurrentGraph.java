@@ -0,0 +1,464 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 线程安全的邻接表图（分段读写锁）
+ * Thread-safe adjacency-list graph with striped read/write locks
+ *
+ * 顶点 v 的出边行由第 (v mod 段数) 个读写锁保护，不同段上的边操作可以并行执行；
+ * 无向图同时修改两行时按段号升序加锁，避免死锁。增删顶点会重新编号，因此使用一把
+ * 结构锁：边操作持有其读锁，顶点操作持有其写锁。
+ *
+ * 算法在编辑持续进行时应先调用 snapshot() 取得一致的只读 CSRGraph，
+ * 再把快照交给 MST、GraphAlgorithms 等在工作线程上运行；
+ * 直接在本图上逐行遍历只能保证每一行内部的一致性。
+ * 注册了修改监听器（如 GraphPropertyIndex、DynamicShortestPaths、DynamicMST）后，
+ * 所有修改按发生顺序串行执行并依次发出事件，增量结构不会收到乱序的事件。
+ */
+public class ConcurrentGraph extends Graph {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+    // 有监听器时串行化修改与事件发出
+    private final ReentrantLock eventLock = new ReentrantLock();
+    private final ReentrantReadWriteLock[] stripes;
+    private final int stripeMask;
+
+    // 仅在结构写锁下替换或扩容；行内容由对应的段锁保护
+    private AdjacencyRow[] rows;
+    private final AtomicInteger edgeCount = new AtomicInteger();
+
+    public ConcurrentGraph(int numVertices, boolean isDirected) {
+        this(numVertices, isDirected, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripeCount 锁的段数，会向上取整为 2 的幂
+     */
+    public ConcurrentGraph(int numVertices, boolean isDirected, int stripeCount) {
+        super(numVertices, isDirected);
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("锁段数必须为正数");
+        }
+        int count = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantReadWriteLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+        this.stripeMask = count - 1;
+        this.rows = new AdjacencyRow[Math.max(4, numVertices)];
+        for (int i = 0; i < numVertices; i++) {
+            rows[i] = new AdjacencyRow();
+        }
+    }
+
+    private ReentrantReadWriteLock stripe(int vertex) {
+        return stripes[vertex & stripeMask];
+    }
+
+    /**
+     * 注册了监听器时，用 eventLock 串行化所有修改，并在释放它之前发出事件：
+     * 版本号的分配顺序、事件的到达顺序与修改的实际顺序一致，监听器处理事件时看到的图也正是该版本。
+     * 此时边操作不再按段并行；没有监听器时不加这把锁。监听器应在并发编辑开始之前注册。
+     */
+    private Lock beginEdit() {
+        if (!hasChangeListeners()) {
+            return null;
+        }
+        eventLock.lock();
+        return eventLock;
+    }
+
+    private static void endEdit(Lock edit) {
+        if (edit != null) {
+            edit.unlock();
+        }
+    }
+
+    /**
+     * 有监听器时，修改与事件发出都在 eventLock 内完成，见 beginEdit。
+     */
+    @Override
+    public void addEdge(int source, int destination, double weight) {
+        Lock edit = beginEdit();
+        try {
+            boolean existed;
+            double oldWeight;
+            Lock structure = structureLock.readLock();
+            structure.lock();
+            try {
+                if (!isValidVertex(source) || !isValidVertex(destination)) {
+                    throw new IllegalArgumentException("顶点索引无效");
+                }
+                lockPair(source, destination);
+                try {
+                    AdjacencyRow row = rows[source];
+                    int slot = row.find(destination);
+                    existed = slot >= 0;
+                    oldWeight = existed ? row.weightAt(slot) : Double.NaN;
+                    if (row.put(destination, weight)) {
+                        edgeCount.incrementAndGet();
+                    }
+                    if (!isDirected && source != destination) {
+                        if (rows[destination].put(source, weight)) {
+                            edgeCount.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    unlockPair(source, destination);
+                }
+            } finally {
+                structure.unlock();
+            }
+            fireEdgeChange(source, destination, existed, oldWeight, true, weight);
+        } finally {
+            endEdit(edit);
+        }
+    }
+
+    @Override
+    public void removeEdge(int source, int destination) {
+        Lock edit = beginEdit();
+        try {
+            boolean existed;
+            double oldWeight;
+            Lock structure = structureLock.readLock();
+            structure.lock();
+            try {
+                if (!isValidVertex(source) || !isValidVertex(destination)) {
+                    throw new IllegalArgumentException("顶点索引无效");
+                }
+                lockPair(source, destination);
+                try {
+                    AdjacencyRow row = rows[source];
+                    int slot = row.find(destination);
+                    existed = slot >= 0;
+                    oldWeight = existed ? row.weightAt(slot) : Double.NaN;
+                    if (row.remove(destination)) {
+                        edgeCount.decrementAndGet();
+                    }
+                    if (!isDirected && source != destination) {
+                        if (rows[destination].remove(source)) {
+                            edgeCount.decrementAndGet();
+                        }
+                    }
+                } finally {
+                    unlockPair(source, destination);
+                }
+            } finally {
+                structure.unlock();
+            }
+            fireEdgeChange(source, destination, existed, oldWeight, false, Double.NaN);
+        } finally {
+            endEdit(edit);
+        }
+    }
+
+    // 有向图只需锁住起点所在段；无向图按段号升序锁住两端所在的段
+    private void lockPair(int source, int destination) {
+        int a = source & stripeMask;
+        int b = isDirected ? a : destination & stripeMask;
+        if (a == b) {
+            stripes[a].writeLock().lock();
+        } else {
+            stripes[Math.min(a, b)].writeLock().lock();
+            stripes[Math.max(a, b)].writeLock().lock();
+        }
+    }
+
+    private void unlockPair(int source, int destination) {
+        int a = source & stripeMask;
+        int b = isDirected ? a : destination & stripeMask;
+        stripes[a].writeLock().unlock();
+        if (a != b) {
+            stripes[b].writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean hasEdge(int source, int destination) {
+        Lock structure = structureLock.readLock();
+        structure.lock();
+        try {
+            if (!isValidVertex(source) || !isValidVertex(destination)) {
+                return false;
+            }
+            Lock lock = stripe(source).readLock();
+            lock.lock();
+            try {
+                return rows[source].find(destination) >= 0;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            structure.unlock();
+        }
+    }
+
+    @Override
+    public double getWeight(int source, int destination) {
+        Lock structure = structureLock.readLock();
+        structure.lock();
+        try {
+            if (!isValidVertex(source) || !isValidVertex(destination)) {
+                return Double.MAX_VALUE;
+            }
+            Lock lock = stripe(source).readLock();
+            lock.lock();
+            try {
+                AdjacencyRow row = rows[source];
+                int slot = row.find(destination);
+                return slot >= 0 ? row.weightAt(slot) : Double.MAX_VALUE;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            structure.unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> getNeighbors(int vertex) {
+        List<Integer> neighbors = new ArrayList<>();
+        forEachNeighbor(vertex, (neighbor, weight) -> neighbors.add(neighbor));
+        return neighbors;
+    }
+
+    /**
+     * 在该顶点所在段的读锁下复制其出边，释放所有锁之后再逐条回调。
+     * 回调中可以继续调用本图的方法（包括修改），不会与按段加锁的写操作互相等待；
+     * 代价是每次遍历复制一次该行，回调看到的是复制时刻的出边。
+     */
+    @Override
+    public void forEachNeighbor(int vertex, NeighborVisitor visitor) {
+        int[] targets;
+        double[] weights;
+        Lock structure = structureLock.readLock();
+        structure.lock();
+        try {
+            if (!isValidVertex(vertex)) {
+                return;
+            }
+            Lock lock = stripe(vertex).readLock();
+            lock.lock();
+            try {
+                AdjacencyRow row = rows[vertex];
+                targets = new int[row.size()];
+                weights = new double[row.size()];
+                for (int i = 0; i < targets.length; i++) {
+                    targets[i] = row.targetAt(i);
+                    weights[i] = row.weightAt(i);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            structure.unlock();
+        }
+        for (int i = 0; i < targets.length; i++) {
+            visitor.visit(targets[i], weights[i]);
+        }
+    }
+
+    @Override
+    public List<Edge> getAllEdges() {
+        EdgeBuffer buffer = new EdgeBuffer(getNumEdges());
+        fillEdges(buffer);
+        List<Edge> edges = new ArrayList<>(buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            edges.add(buffer.edgeAt(i));
+        }
+        return edges;
+    }
+
+    /**
+     * 同时持有所有段的读锁后复制边，结果是某一时刻的一致视图
+     */
+    @Override
+    public void fillEdges(EdgeBuffer buffer) {
+        Lock structure = structureLock.readLock();
+        structure.lock();
+        lockAllStripes();
+        try {
+            buffer.clear();
+            buffer.ensureCapacity(edgeCount.get());
+            for (int u = 0; u < numVertices; u++) {
+                AdjacencyRow row = rows[u];
+                for (int i = 0; i < row.size(); i++) {
+                    buffer.add(u, row.targetAt(i), row.weightAt(i));
+                }
+            }
+        } finally {
+            unlockAllStripes();
+            structure.unlock();
+        }
+    }
+
+    private void lockAllStripes() {
+        for (ReentrantReadWriteLock s : stripes) {
+            s.readLock().lock();
+        }
+    }
+
+    private void unlockAllStripes() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getNumEdges() {
+        return edgeCount.get();
+    }
+
+    @Override
+    public int getNumVertices() {
+        Lock structure = structureLock.readLock();
+        structure.lock();
+        try {
+            return numVertices;
+        } finally {
+            structure.unlock();
+        }
+    }
+
+    /**
+     * 取得当前图的一致只读快照（边与顶点标签来自同一时刻），代价为 O(V + E)。
+     * 快照期间边写入会被短暂阻塞，之后对本图的修改不影响快照。
+     */
+    public CSRGraph snapshot() {
+        Lock structure = structureLock.readLock();
+        structure.lock();
+        try {
+            return CSRGraph.fromGraph(this);
+        } finally {
+            structure.unlock();
+        }
+    }
+
+    @Override
+    public void addVertex(String label) {
+        Lock edit = beginEdit();
+        try {
+            int added;
+            Lock structure = structureLock.writeLock();
+            structure.lock();
+            try {
+                if (numVertices == rows.length) {
+                    rows = Arrays.copyOf(rows, rows.length * 2);
+                }
+                rows[numVertices] = new AdjacencyRow();
+                added = numVertices++;
+
+                // 强制标签与索引一致
+                super.resetVertexLabelsToIndex();
+            } finally {
+                structure.unlock();
+            }
+            fireVertexAdded(added);
+        } finally {
+            endEdit(edit);
+        }
+    }
+
+    @Override
+    public void removeVertex(int vertex) {
+        Lock edit = beginEdit();
+        try {
+            Lock structure = structureLock.writeLock();
+            structure.lock();
+            try {
+                if (!isValidVertex(vertex)) {
+                    throw new IllegalArgumentException("顶点索引无效: " + vertex);
+                }
+                if (numVertices <= 1) {
+                    throw new IllegalArgumentException("无法删除最后一个顶点");
+                }
+
+                // 结构写锁排除了所有边操作，这里无需再获取段锁
+                int removed = rows[vertex].size();
+                System.arraycopy(rows, vertex + 1, rows, vertex, numVertices - vertex - 1);
+                numVertices--;
+                rows[numVertices] = null;
+                for (int u = 0; u < numVertices; u++) {
+                    AdjacencyRow row = rows[u];
+                    int before = row.size();
+                    row.removeAndShift(vertex);
+                    removed += before - row.size();
+                }
+                edgeCount.addAndGet(-removed);
+
+                // 强制标签与索引一致
+                super.resetVertexLabelsToIndex();
+            } finally {
+                structure.unlock();
+            }
+            fireVertexRemoved(vertex);
+        } finally {
+            endEdit(edit);
+        }
+    }
+
+    /* ------------------ 顶点标签（由结构锁保护） ------------------ */
+
+    @Override
+    public void setVertexLabel(int vertex, String label) {
+        Lock structure = structureLock.writeLock();
+        structure.lock();
+        try {
+            super.setVertexLabel(vertex, label);
+        } finally {
+            structure.unlock();
+        }
+    }
+
+    @Override
+    public void resetVertexLabelsToIndex() {
+        Lock structure = structureLock.writeLock();
+        structure.lock();
+        try {
+            super.resetVertexLabelsToIndex();
+        } finally {
+            structure.unlock();
+        }
+    }
+
+    @Override
+    public String getVertexLabel(int vertex) {
+        Lock structure = structureLock.readLock();
+        structure.lock();
+        try {
+            return super.getVertexLabel(vertex);
+        } finally {
+            structure.unlock();
+        }
+    }
+
+    @Override
+    public int findVertexByLabel(String label) {
+        Lock structure = structureLock.readLock();
+        structure.lock();
+        try {
+            return super.findVertexByLabel(label);
+        } finally {
+            structure.unlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, String> getAllVertexLabels() {
+        Lock structure = structureLock.readLock();
+        structure.lock();
+        try {
+            return super.getAllVertexLabels();
+        } finally {
+            structure.unlock();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 无锁并查集
+ * Lock-free union-find for concurrent unions and finds
+ *
+ * 父指针保存在 AtomicIntegerArray 中。find 使用路径减半（用 CAS 把节点指向祖父节点，失败无害），
+ * union 用 CAS 把编号较大的根挂到编号较小的根下，按固定顺序链接保证并发合并不会形成环。
+ */
+public final class ConcurrentUnionFind {
+
+    private final AtomicIntegerArray parent;
+
+    public ConcurrentUnionFind(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("元素个数不能为负数");
+        }
+        parent = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    public int size() {
+        return parent.length();
+    }
+
+    public int find(int x) {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) return x;
+            int gp = parent.get(p);
+            if (gp == p) return p;
+            parent.compareAndSet(x, p, gp);
+            x = gp;
+        }
+    }
+
+    /**
+     * 合并 a、b 所在的集合；返回 false 表示二者已在同一集合中
+     */
+    public boolean union(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) return false;
+            int low = Math.min(a, b);
+            int high = Math.max(a, b);
+            // high 仍是根时才链接，否则说明有其他线程刚刚合并过，重试
+            if (parent.compareAndSet(high, high, low)) return true;
+        }
+    }
+
+    public boolean connected(int a, int b) {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) return true;
+            // a 在两次 find 之间没有被挂到别处，结论才可靠
+            if (parent.get(a) == a) return false;
+        }
+    }
+}
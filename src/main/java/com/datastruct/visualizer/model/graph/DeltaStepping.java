@@ -0,0 +1,271 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 并行 Delta-stepping 单源最短路径
+ * Parallel delta-stepping single-source shortest paths on a ForkJoinPool
+ *
+ * 把距离划分为宽度为 delta 的桶，按桶号从小到大处理：桶内先反复松弛轻边（w <= delta）直到桶为空，
+ * 再对本桶确定的所有顶点松弛一次重边。同一轮中对不同顶点的松弛在 ForkJoinPool 上并行执行，
+ * 距离用 CAS 取最小值。delta 越小越接近 Dijkstra（轮数多、每轮工作少），越大越接近 Bellman-Ford。
+ *
+ * 开始时对图取一份快照，结果与 MST.dijkstra 的距离完全一致；前驱按最终距离从紧边重建，
+ * 距离相同的多条最短路径中选择的前驱可能与 Dijkstra 不同。要求边权非负。
+ */
+public final class DeltaStepping {
+
+    // 每个叶子任务处理的顶点数
+    private static final int LEAF_SIZE = 256;
+
+    private final CompactAdjacency adj;
+    private final double delta;
+    private final ForkJoinPool pool;
+    // 距离的 double 位模式：非负 double 的位模式与数值同序，可直接按 long 比较
+    private final AtomicLongArray dist;
+
+    private DeltaStepping(CompactAdjacency adj, double delta, ForkJoinPool pool) {
+        this.adj = adj;
+        this.delta = delta;
+        this.pool = pool;
+        this.dist = new AtomicLongArray(adj.numVertices);
+    }
+
+    /**
+     * 使用默认的 delta（最大边权 / 平均出度）与公共 ForkJoinPool
+     */
+    public static MST.ShortestPathResult shortestPaths(Graph graph, int source) {
+        CompactAdjacency adj = snapshot(graph, source);
+        return new DeltaStepping(adj, defaultDelta(adj), ForkJoinPool.commonPool()).run(source);
+    }
+
+    public static MST.ShortestPathResult shortestPaths(Graph graph, int source, double delta) {
+        return shortestPaths(graph, source, delta, ForkJoinPool.commonPool());
+    }
+
+    public static MST.ShortestPathResult shortestPaths(Graph graph, int source, double delta, ForkJoinPool pool) {
+        if (!(delta > 0) || Double.isInfinite(delta)) {
+            throw new IllegalArgumentException("delta 必须为正的有限数");
+        }
+        Objects.requireNonNull(pool);
+        return new DeltaStepping(snapshot(graph, source), delta, pool).run(source);
+    }
+
+    private static CompactAdjacency snapshot(Graph graph, int source) {
+        CompactAdjacency adj = CompactAdjacency.of(graph);
+        if (source < 0 || source >= adj.numVertices) {
+            throw new IllegalArgumentException("源点索引越界");
+        }
+        if (adj.hasNegativeWeight()) {
+            throw new IllegalArgumentException("Delta-stepping 不支持负权边");
+        }
+        return adj;
+    }
+
+    // 经验值：最大边权 / 平均出度，使每个桶平均只需少量轻边松弛轮次
+    private static double defaultDelta(CompactAdjacency adj) {
+        double maxWeight = adj.maxWeight();
+        if (maxWeight == 0) {
+            return 1.0;
+        }
+        double averageDegree = adj.numVertices == 0 ? 1.0 : (double) adj.numEdges() / adj.numVertices;
+        return maxWeight / Math.max(1.0, averageDegree);
+    }
+
+    private MST.ShortestPathResult run(int source) {
+        int n = adj.numVertices;
+        long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        for (int v = 0; v < n; v++) {
+            dist.set(v, infinity);
+        }
+        dist.set(source, Double.doubleToRawLongBits(0.0));
+
+        // 桶号 -> 顶点；距离变小后旧桶中的条目不删除，取出时按当前距离过滤
+        TreeMap<Long, IntStack> buckets = new TreeMap<>();
+        IntStack first = new IntStack();
+        first.push(source);
+        buckets.put(0L, first);
+
+        // mark[v] == epoch 表示 v 已在当前集合中，避免同一轮重复处理
+        int[] mark = new int[n];
+        int[] settledMark = new int[n];
+        int epoch = 0;
+        int bucketEpoch = 0;
+
+        while (!buckets.isEmpty()) {
+            Map.Entry<Long, IntStack> entry = buckets.pollFirstEntry();
+            long index = entry.getKey();
+            bucketEpoch++;
+            epoch++;
+            IntStack frontier = new IntStack();
+            IntStack candidates = entry.getValue();
+            for (int i = 0; i < candidates.size(); i++) {
+                int v = candidates.get(i);
+                if (mark[v] != epoch && bucketOf(distance(v)) == index) {
+                    mark[v] = epoch;
+                    frontier.push(v);
+                }
+            }
+
+            // 本桶中确定的顶点，用于最后松弛重边
+            IntStack settled = new IntStack();
+            while (!frontier.isEmpty()) {
+                for (int i = 0; i < frontier.size(); i++) {
+                    int v = frontier.get(i);
+                    if (settledMark[v] != bucketEpoch) {
+                        settledMark[v] = bucketEpoch;
+                        settled.push(v);
+                    }
+                }
+                IntStack improved = relax(frontier, true);
+                epoch++;
+                frontier = new IntStack();
+                for (int i = 0; i < improved.size(); i++) {
+                    int v = improved.get(i);
+                    if (mark[v] == epoch) continue;
+                    mark[v] = epoch;
+                    long b = bucketOf(distance(v));
+                    if (b == index) {
+                        frontier.push(v);
+                    } else {
+                        buckets.computeIfAbsent(b, k -> new IntStack()).push(v);
+                    }
+                }
+            }
+
+            IntStack improved = relax(settled, false);
+            epoch++;
+            for (int i = 0; i < improved.size(); i++) {
+                int v = improved.get(i);
+                if (mark[v] == epoch) continue;
+                mark[v] = epoch;
+                buckets.computeIfAbsent(bucketOf(distance(v)), k -> new IntStack()).push(v);
+            }
+        }
+
+        double[] distances = new double[n];
+        for (int v = 0; v < n; v++) {
+            distances[v] = distance(v);
+        }
+        return new MST.ShortestPathResult(distances, predecessors(distances, source), false);
+    }
+
+    private double distance(int v) {
+        return Double.longBitsToDouble(dist.get(v));
+    }
+
+    private long bucketOf(double d) {
+        return (long) Math.floor(d / delta);
+    }
+
+    // 并行松弛 vertices 的轻边（light = true）或重边，返回距离变小的顶点（可能重复）
+    private IntStack relax(IntStack vertices, boolean light) {
+        if (vertices.isEmpty()) {
+            return vertices;
+        }
+        RelaxTask task = new RelaxTask(vertices, 0, vertices.size(), light);
+        return vertices.size() <= LEAF_SIZE ? task.compute() : pool.invoke(task);
+    }
+
+    private final class RelaxTask extends RecursiveTask<IntStack> {
+        private static final long serialVersionUID = 1L;
+
+        private final IntStack vertices;
+        private final int from;
+        private final int to;
+        private final boolean light;
+
+        RelaxTask(IntStack vertices, int from, int to, boolean light) {
+            this.vertices = vertices;
+            this.from = from;
+            this.to = to;
+            this.light = light;
+        }
+
+        @Override
+        protected IntStack compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                RelaxTask left = new RelaxTask(vertices, from, mid, light);
+                left.fork();
+                IntStack right = new RelaxTask(vertices, mid, to, light).compute();
+                IntStack result = left.join();
+                result.pushAll(right);
+                return result;
+            }
+            IntStack improved = new IntStack();
+            for (int i = from; i < to; i++) {
+                int u = vertices.get(i);
+                double du = distance(u);
+                for (int k = adj.offsets[u]; k < adj.offsets[u + 1]; k++) {
+                    double w = adj.weights[k];
+                    if ((w <= delta) != light) continue;
+                    int v = adj.targets[k];
+                    long candidate = Double.doubleToRawLongBits(du + w);
+                    long current = dist.get(v);
+                    while (candidate < current) {
+                        if (dist.compareAndSet(v, current, candidate)) {
+                            improved.push(v);
+                            break;
+                        }
+                        current = dist.get(v);
+                    }
+                }
+            }
+            return improved;
+        }
+    }
+
+    /**
+     * 由最终距离重建前驱：优先选择满足 dist[u] + w == dist[v] 且 dist[u] < dist[v] 的紧边（取编号最小的 u）；
+     * 只能经由零权（或舍入后为零）紧边到达的顶点，再从已确定前驱的顶点出发沿紧边补齐，避免形成环。
+     */
+    private int[] predecessors(double[] distances, int source) {
+        int n = adj.numVertices;
+        AtomicIntegerArray best = new AtomicIntegerArray(n);
+        for (int v = 0; v < n; v++) {
+            best.set(v, Integer.MAX_VALUE);
+        }
+        pool.submit(() -> java.util.stream.IntStream.range(0, n).parallel().forEach(u -> {
+            double du = distances[u];
+            if (Double.isInfinite(du)) return;
+            for (int k = adj.offsets[u]; k < adj.offsets[u + 1]; k++) {
+                int v = adj.targets[k];
+                if (v != source && du < distances[v] && du + adj.weights[k] == distances[v]) {
+                    best.accumulateAndGet(v, u, Math::min);
+                }
+            }
+        })).join();
+
+        int[] prev = new int[n];
+        IntStack resolved = new IntStack();
+        boolean[] done = new boolean[n];
+        int pending = 0;
+        for (int v = 0; v < n; v++) {
+            int p = best.get(v);
+            prev[v] = p == Integer.MAX_VALUE ? -1 : p;
+            done[v] = v == source || p != Integer.MAX_VALUE || Double.isInfinite(distances[v]);
+            if (!done[v]) pending++;
+            if (!Double.isInfinite(distances[v])) resolved.push(v);
+        }
+        // 零权紧边的补齐：从已确定的顶点沿紧边做一次广度遍历
+        for (int i = 0; pending > 0 && i < resolved.size(); i++) {
+            int u = resolved.get(i);
+            if (!done[u]) continue;
+            for (int k = adj.offsets[u]; k < adj.offsets[u + 1]; k++) {
+                int v = adj.targets[k];
+                if (!done[v] && distances[u] + adj.weights[k] == distances[v]) {
+                    done[v] = true;
+                    prev[v] = u;
+                    pending--;
+                    resolved.push(v);
+                }
+            }
+        }
+        return prev;
+    }
+}
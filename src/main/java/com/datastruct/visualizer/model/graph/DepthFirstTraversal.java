@@ -0,0 +1,78 @@
+package com.datastruct.visualizer.model.graph;
+
+/**
+ * 显式栈实现的深度优先遍历
+ * Iterative depth-first traversal with an explicit primitive stack
+ *
+ * 访问顺序以及 visit / backtrack 回调序列与递归实现完全一致，但不受线程栈深度限制。
+ * 顶点第一次被访问时把它的邻接顶点按 forEachNeighbor 的顺序压入共享的邻接栈，
+ * 栈帧只记录 (顶点, 游标, 段尾)；与递归版本一样，是否已访问在游标前进到该邻接顶点时才判断。
+ * 各栈帧的邻接段首尾相接，因此额外内存不超过当前搜索路径上的度数之和。
+ */
+public final class DepthFirstTraversal {
+
+    /**
+     * 遍历回调。parent 为 -1 表示起始顶点。
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(int vertex, int parent);
+
+        /**
+         * 顶点的所有邻接顶点处理完毕、返回父顶点时调用（起始顶点不调用）
+         */
+        default void backtrack(int vertex, int parent) {
+        }
+    }
+
+    private static final int FRAME_SIZE = 3;
+
+    private DepthFirstTraversal() {
+    }
+
+    /**
+     * 从 start 开始深度优先遍历所有可达且未访问的顶点，visited 会被更新
+     */
+    public static void traverse(Graph graph, int start, boolean[] visited, Visitor visitor) {
+        IntStack frames = new IntStack();
+        IntStack neighbors = new IntStack();
+
+        visited[start] = true;
+        visitor.visit(start, -1);
+        pushFrame(graph, start, frames, neighbors);
+
+        while (!frames.isEmpty()) {
+            int top = frames.size() - FRAME_SIZE;
+            int vertex = frames.get(top);
+            int cursor = frames.get(top + 1);
+            int end = frames.get(top + 2);
+
+            while (cursor < end && visited[neighbors.get(cursor)]) {
+                cursor++;
+            }
+
+            if (cursor < end) {
+                int next = neighbors.get(cursor);
+                frames.set(top + 1, cursor + 1);
+                visited[next] = true;
+                visitor.visit(next, vertex);
+                pushFrame(graph, next, frames, neighbors);
+            } else {
+                frames.truncate(top);
+                // 本帧的邻接段从下一层栈帧的段尾开始
+                neighbors.truncate(top > 0 ? frames.get(top - 1) : 0);
+                if (top > 0) {
+                    visitor.backtrack(vertex, frames.get(top - FRAME_SIZE));
+                }
+            }
+        }
+    }
+
+    private static void pushFrame(Graph graph, int vertex, IntStack frames, IntStack neighbors) {
+        int begin = neighbors.size();
+        graph.forEachNeighbor(vertex, (neighbor, weight) -> neighbors.push(neighbor));
+        frames.push(vertex);
+        frames.push(begin);
+        frames.push(neighbors.size());
+    }
+}
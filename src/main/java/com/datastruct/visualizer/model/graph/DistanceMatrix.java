@@ -0,0 +1,242 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 全源最短路径的距离矩阵（n × n 个 double，按行优先排列）
+ * Compact all-pairs distance matrix kept on the heap or in a memory-mapped file
+ *
+ * 不可达为 Double.POSITIVE_INFINITY。矩阵放得进堆内存时使用一维 double 数组；
+ * 否则写入内存映射文件，数据不占用堆内存。映射文件按整行分段（每段不超过 1GB），
+ * 因此任意一行都位于同一段中。不同的行可以由多个线程并发写入。
+ */
+public abstract class DistanceMatrix implements Closeable {
+
+    // 堆上矩阵最多使用最大堆内存的这一比例，超过则改用映射文件
+    private static final int HEAP_FRACTION = 4;
+
+    protected final int size;
+
+    DistanceMatrix(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("顶点数不能为负数");
+        }
+        this.size = size;
+    }
+
+    /**
+     * 按大小自动选择：堆内存足够时放在堆上，否则映射到临时目录下的文件（close 时删除）
+     */
+    public static DistanceMatrix allocate(int size) {
+        long bytes = (long) size * size * Double.BYTES;
+        if ((long) size * size <= Integer.MAX_VALUE - 8 && bytes <= Runtime.getRuntime().maxMemory() / HEAP_FRACTION) {
+            return onHeap(size);
+        }
+        try {
+            Path file = Files.createTempFile("apsp-", ".dist");
+            return new Mapped(size, file, true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("无法创建距离矩阵文件", e);
+        }
+    }
+
+    public static DistanceMatrix onHeap(int size) {
+        if ((long) size * size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("矩阵过大，无法放在堆内存中: " + size);
+        }
+        return new Heap(size);
+    }
+
+    /**
+     * 映射到指定文件（已存在则覆盖），close 时保留文件
+     */
+    public static DistanceMatrix mapped(int size, Path file) throws IOException {
+        return new Mapped(size, file, false);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public abstract double get(int row, int col);
+
+    /**
+     * 把第 row 行复制到 dst（长度至少为 size）
+     */
+    public double[] getRow(int row, double[] dst) {
+        readBlock(row, 0, 1, size, dst, size);
+        return dst;
+    }
+
+    public abstract boolean isMapped();
+
+    // 以下为算法内部使用的写入与分块读写；dstStride/srcStride 为缓冲区中相邻两行的间距
+
+    abstract void set(int row, int col, double value);
+
+    void setRow(int row, double[] src) {
+        writeBlock(row, 0, 1, size, src, size);
+    }
+
+    abstract void readBlock(int row, int col, int rows, int cols, double[] dst, int dstStride);
+
+    abstract void writeBlock(int row, int col, int rows, int cols, double[] src, int srcStride);
+
+    @Override
+    public void close() {
+    }
+
+    void checkIndex(int row, int col) {
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            throw new IndexOutOfBoundsException("矩阵下标越界: (" + row + ", " + col + ")");
+        }
+    }
+
+    /* ------------------ 堆上实现 ------------------ */
+
+    private static final class Heap extends DistanceMatrix {
+        private final double[] cells;
+
+        Heap(int size) {
+            super(size);
+            this.cells = new double[size * size];
+            Arrays.fill(cells, Double.POSITIVE_INFINITY);
+        }
+
+        @Override
+        public double get(int row, int col) {
+            checkIndex(row, col);
+            return cells[row * size + col];
+        }
+
+        @Override
+        public boolean isMapped() {
+            return false;
+        }
+
+        @Override
+        void set(int row, int col, double value) {
+            checkIndex(row, col);
+            cells[row * size + col] = value;
+        }
+
+        @Override
+        void readBlock(int row, int col, int rows, int cols, double[] dst, int dstStride) {
+            for (int r = 0; r < rows; r++) {
+                System.arraycopy(cells, (row + r) * size + col, dst, r * dstStride, cols);
+            }
+        }
+
+        @Override
+        void writeBlock(int row, int col, int rows, int cols, double[] src, int srcStride) {
+            for (int r = 0; r < rows; r++) {
+                System.arraycopy(src, r * srcStride, cells, (row + r) * size + col, cols);
+            }
+        }
+    }
+
+    /* ------------------ 内存映射实现 ------------------ */
+
+    private static final class Mapped extends DistanceMatrix {
+        private static final long SEGMENT_SIZE = 1L << 30;
+
+        private final Path file;
+        private final boolean deleteOnClose;
+        private final int rowsPerSegment;
+        // 每段的 double 视图，只使用不改变 position 的绝对读写，可多线程并发访问不同的行
+        private DoubleBuffer[] segments;
+
+        Mapped(int size, Path file, boolean deleteOnClose) throws IOException {
+            super(size);
+            this.file = file;
+            this.deleteOnClose = deleteOnClose;
+            long rowBytes = Math.max(1L, (long) size * Double.BYTES);
+            this.rowsPerSegment = (int) Math.max(1, Math.min(size, SEGMENT_SIZE / rowBytes));
+            int count = size == 0 ? 0 : (size + rowsPerSegment - 1) / rowsPerSegment;
+            this.segments = new DoubleBuffer[count];
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                double[] infinities = new double[size];
+                Arrays.fill(infinities, Double.POSITIVE_INFINITY);
+                for (int s = 0; s < count; s++) {
+                    int rows = Math.min(rowsPerSegment, size - s * rowsPerSegment);
+                    long position = (long) s * rowsPerSegment * rowBytes;
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, rows * rowBytes);
+                    buffer.order(ByteOrder.nativeOrder());
+                    DoubleBuffer view = buffer.asDoubleBuffer();
+                    for (int r = 0; r < rows; r++) {
+                        view.put(r * size, infinities, 0, size);
+                    }
+                    segments[s] = view;
+                }
+            }
+        }
+
+        private DoubleBuffer segmentOf(int row) {
+            if (segments == null) {
+                throw new IllegalStateException("距离矩阵已关闭");
+            }
+            return segments[row / rowsPerSegment];
+        }
+
+        private int offsetOf(int row, int col) {
+            return (row % rowsPerSegment) * size + col;
+        }
+
+        @Override
+        public double get(int row, int col) {
+            checkIndex(row, col);
+            return segmentOf(row).get(offsetOf(row, col));
+        }
+
+        @Override
+        public boolean isMapped() {
+            return true;
+        }
+
+        @Override
+        void set(int row, int col, double value) {
+            checkIndex(row, col);
+            segmentOf(row).put(offsetOf(row, col), value);
+        }
+
+        @Override
+        void readBlock(int row, int col, int rows, int cols, double[] dst, int dstStride) {
+            for (int r = 0; r < rows; r++) {
+                segmentOf(row + r).get(offsetOf(row + r, col), dst, r * dstStride, cols);
+            }
+        }
+
+        @Override
+        void writeBlock(int row, int col, int rows, int cols, double[] src, int srcStride) {
+            for (int r = 0; r < rows; r++) {
+                segmentOf(row + r).put(offsetOf(row + r, col), src, r * srcStride, cols);
+            }
+        }
+
+        /**
+         * 释放映射引用；临时文件随之删除（映射本身在被垃圾回收后才真正解除）
+         */
+        @Override
+        public void close() {
+            segments = null;
+            if (deleteOnClose) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("无法删除距离矩阵文件", e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+
+/**
+ * 动态最小生成森林
+ * Minimum spanning forest maintained under edge updates with a link-cut tree
+ *
+ * 创建时用 MST.kruskal 求出一次，之后监听无向图的修改事件：
+ * 加边时若两端不连通则直接连上，否则找出树上两端之间路径的最重边，比新边重则用新边替换它；
+ * 删除树边后，沿树边从两个端点交替做 BFS，先搜完的一侧较小，在它的邻边中找跨到另一侧的最轻边作为替换边，
+ * 代价与较小一侧的度数之和成正比。
+ * 树保存在 link-cut tree 中（每条树边也是一个结点，路径聚合最重的边结点），
+ * 连通性判断、路径最大值、连接与断开都是均摊 O(log V)。总权重随修改同步更新，getTotalWeight 为 O(1)。
+ * 非树边不单独保存，需要时直接从图中读取。
+ *
+ * 树边变重按删除处理（替换边的候选包含它自己），非树边变轻按加边处理，其余权重变化原地更新。
+ * 顶点的增删与 GRAPH_RESET 会整体重建。
+ * 不再使用时应调用 close() 移除监听器。
+ */
+public final class DynamicMST implements AutoCloseable {
+
+    private static final int NIL = 0;
+
+    private final Graph graph;
+    private final GraphChangeListener listener = this::onGraphChanged;
+    private int n;
+    private boolean closed;
+
+    // link-cut tree：顶点 i 为结点 i + 1，树边结点从 n + 1 起分配；NIL 为空
+    private int[] left;
+    private int[] right;
+    private int[] parent;
+    private boolean[] flip;
+    private double[] value;
+    // 所在 splay 子树中权重最大的结点
+    private int[] maxNode;
+    private int[] edgeU;
+    private int[] edgeV;
+    private int[] splayStack;
+    private IntStack freeNodes;
+
+    // 树边：端点键 -> 边结点
+    private Map<Long, Integer> treeEdges;
+    private double totalWeight;
+    // 寻找替换边时的访问标记（按轮次编号，不需要清空）
+    private int[] seen;
+    private int[] smaller;
+    private int stamp;
+
+    public DynamicMST(Graph graph) {
+        this.graph = Objects.requireNonNull(graph);
+        if (graph.isDirected()) {
+            throw new IllegalArgumentException("有向图无法构建最小生成树");
+        }
+        synchronized (this) {
+            rebuild();
+        }
+        graph.addChangeListener(listener);
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * 最小生成森林的总权重，O(1)
+     */
+    public synchronized double getTotalWeight() {
+        checkOpen();
+        return totalWeight;
+    }
+
+    public synchronized int getNumTreeEdges() {
+        checkOpen();
+        return treeEdges.size();
+    }
+
+    /**
+     * 连通分量数（森林中树的棵数）
+     */
+    public synchronized int getComponentCount() {
+        checkOpen();
+        return n - treeEdges.size();
+    }
+
+    public synchronized boolean connected(int u, int v) {
+        checkOpen();
+        checkVertex(u);
+        checkVertex(v);
+        return findRoot(u + 1) == findRoot(v + 1);
+    }
+
+    public synchronized boolean isTreeEdge(int u, int v) {
+        checkOpen();
+        return treeEdges.containsKey(key(u, v));
+    }
+
+    /**
+     * 当前的树边（u < v），按权重升序
+     */
+    public synchronized List<Edge> getEdges() {
+        checkOpen();
+        List<Edge> edges = new ArrayList<>(treeEdges.size());
+        for (int e : treeEdges.values()) {
+            edges.add(new Edge(edgeU[e], edgeV[e], value[e]));
+        }
+        edges.sort(Comparator.comparingDouble(Edge::getWeight));
+        return edges;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            graph.removeChangeListener(listener);
+        }
+    }
+
+    /* ------------------ 事件处理 ------------------ */
+
+    private synchronized void onGraphChanged(GraphChangeEvent event) {
+        if (closed) {
+            return;
+        }
+        if (!event.isEdgeEvent()) {
+            rebuild();
+            return;
+        }
+        int u = event.getSource();
+        int v = event.getDestination();
+        if (u == v) {
+            // 自环不会出现在生成树中
+            return;
+        }
+        switch (event.getType()) {
+            case EDGE_ADDED -> insert(u, v, event.getNewWeight());
+            case EDGE_REMOVED -> delete(u, v);
+            case WEIGHT_CHANGED -> reweight(u, v, event.getOldWeight(), event.getNewWeight());
+            default -> { }
+        }
+    }
+
+    private void insert(int u, int v, double w) {
+        int a = u + 1;
+        int b = v + 1;
+        if (findRoot(a) != findRoot(b)) {
+            linkEdge(u, v, w);
+            return;
+        }
+        // 成环：新边比路径上最重的边轻时替换它
+        makeRoot(a);
+        access(b);
+        int heaviest = maxNode[b];
+        if (value[heaviest] > w) {
+            cutEdge(heaviest);
+            linkEdge(u, v, w);
+        }
+    }
+
+    private void delete(int u, int v) {
+        Integer e = treeEdges.get(key(u, v));
+        if (e != null) {
+            cutEdge(e);
+            reconnect(u, v);
+        }
+    }
+
+    private void reweight(int u, int v, double oldWeight, double newWeight) {
+        Integer e = treeEdges.get(key(u, v));
+        if (e == null) {
+            // 非树边变重不影响生成树
+            if (newWeight < oldWeight) {
+                insert(u, v, newWeight);
+            }
+            return;
+        }
+        if (newWeight <= oldWeight) {
+            // 树边变轻仍是最小生成树：原地修改权重
+            splay(e);
+            value[e] = newWeight;
+            pull(e);
+            totalWeight += newWeight - oldWeight;
+            return;
+        }
+        cutEdge(e);
+        reconnect(u, v);
+    }
+
+    // u、v 之间的树边刚被断开：在较小一侧的邻边中找跨到另一侧的最轻边，没有则保持断开
+    private void reconnect(int u, int v) {
+        IntStack side = smallerSide(u, v);
+        stamp++;
+        for (int i = 0; i < side.size(); i++) {
+            smaller[side.get(i)] = stamp;
+        }
+        int[] best = { -1, -1 };
+        double[] bestWeight = { Double.POSITIVE_INFINITY };
+        for (int i = 0; i < side.size(); i++) {
+            int x = side.get(i);
+            graph.forEachNeighbor(x, (y, w) -> {
+                if (smaller[y] != stamp && (best[0] < 0 || w < bestWeight[0])) {
+                    best[0] = x;
+                    best[1] = y;
+                    bestWeight[0] = w;
+                }
+            });
+        }
+        if (best[0] >= 0) {
+            linkEdge(best[0], best[1], bestWeight[0]);
+        }
+    }
+
+    // 沿树边从 a、b 交替扩展，返回先搜完（较小）的一侧
+    private IntStack smallerSide(int a, int b) {
+        stamp++;
+        IntStack sideA = new IntStack();
+        IntStack sideB = new IntStack();
+        sideA.push(a);
+        sideB.push(b);
+        seen[a] = stamp;
+        seen[b] = stamp;
+        int headA = 0;
+        int headB = 0;
+        while (true) {
+            if (headA == sideA.size()) return sideA;
+            expand(sideA.get(headA++), sideA);
+            if (headB == sideB.size()) return sideB;
+            expand(sideB.get(headB++), sideB);
+        }
+    }
+
+    private void expand(int x, IntStack side) {
+        graph.forEachNeighbor(x, (y, w) -> {
+            if (seen[y] != stamp && treeEdges.containsKey(key(x, y))) {
+                seen[y] = stamp;
+                side.push(y);
+            }
+        });
+    }
+
+    private void linkEdge(int u, int v, double w) {
+        int e = freeNodes.pop();
+        int a = Math.min(u, v);
+        int b = Math.max(u, v);
+        edgeU[e] = a;
+        edgeV[e] = b;
+        value[e] = w;
+        maxNode[e] = e;
+        link(a + 1, e);
+        link(e, b + 1);
+        treeEdges.put(key(a, b), e);
+        totalWeight += w;
+    }
+
+    private void cutEdge(int e) {
+        cut(edgeU[e] + 1, e);
+        cut(e, edgeV[e] + 1);
+        treeEdges.remove(key(edgeU[e], edgeV[e]));
+        totalWeight -= value[e];
+        value[e] = Double.NEGATIVE_INFINITY;
+        maxNode[e] = e;
+        flip[e] = false;
+        freeNodes.push(e);
+    }
+
+    /* ------------------ 整体重建 ------------------ */
+
+    private void rebuild() {
+        n = graph.getNumVertices();
+        // 顶点 n 个，树边结点至多 n - 1 个，另加 NIL
+        int capacity = 2 * n + 1;
+        left = new int[capacity];
+        right = new int[capacity];
+        parent = new int[capacity];
+        flip = new boolean[capacity];
+        value = new double[capacity];
+        maxNode = new int[capacity];
+        edgeU = new int[capacity];
+        edgeV = new int[capacity];
+        splayStack = new int[capacity];
+        Arrays.fill(value, Double.NEGATIVE_INFINITY);
+        for (int x = 1; x < capacity; x++) {
+            maxNode[x] = x;
+        }
+        freeNodes = new IntStack(n);
+        for (int x = capacity - 1; x > n; x--) {
+            freeNodes.push(x);
+        }
+        treeEdges = new HashMap<>();
+        totalWeight = 0.0;
+        seen = new int[n];
+        smaller = new int[n];
+        stamp = 0;
+
+        for (Edge edge : MST.kruskal(graph)) {
+            linkEdge(edge.getSource(), edge.getDestination(), edge.getWeight());
+        }
+    }
+
+    /* ------------------ link-cut tree ------------------ */
+
+    private boolean isSplayRoot(int x) {
+        int p = parent[x];
+        return p == NIL || (left[p] != x && right[p] != x);
+    }
+
+    private void pull(int x) {
+        int best = x;
+        int l = left[x];
+        int r = right[x];
+        if (l != NIL && value[maxNode[l]] > value[best]) best = maxNode[l];
+        if (r != NIL && value[maxNode[r]] > value[best]) best = maxNode[r];
+        maxNode[x] = best;
+    }
+
+    // 翻转 x 的子树：x 的左右孩子立即交换，更深的交换延迟到 push
+    private void toggle(int x) {
+        if (x == NIL) return;
+        int t = left[x];
+        left[x] = right[x];
+        right[x] = t;
+        flip[x] = !flip[x];
+    }
+
+    private void push(int x) {
+        if (flip[x]) {
+            toggle(left[x]);
+            toggle(right[x]);
+            flip[x] = false;
+        }
+    }
+
+    private void rotate(int x) {
+        int p = parent[x];
+        int g = parent[p];
+        if (!isSplayRoot(p)) {
+            if (left[g] == p) left[g] = x; else right[g] = x;
+        }
+        parent[x] = g;
+        if (left[p] == x) {
+            left[p] = right[x];
+            if (right[x] != NIL) parent[right[x]] = p;
+            right[x] = p;
+        } else {
+            right[p] = left[x];
+            if (left[x] != NIL) parent[left[x]] = p;
+            left[x] = p;
+        }
+        parent[p] = x;
+        pull(p);
+        pull(x);
+    }
+
+    private void splay(int x) {
+        // 自上而下下推翻转标记
+        int top = 0;
+        int y = x;
+        splayStack[top++] = y;
+        while (!isSplayRoot(y)) {
+            y = parent[y];
+            splayStack[top++] = y;
+        }
+        while (top > 0) {
+            push(splayStack[--top]);
+        }
+        while (!isSplayRoot(x)) {
+            int p = parent[x];
+            if (!isSplayRoot(p)) {
+                int g = parent[p];
+                rotate((left[g] == p) == (left[p] == x) ? p : x);
+            }
+            rotate(x);
+        }
+    }
+
+    // 使根到 x 的路径成为 x 所在的 splay 树，x 为其根且没有右孩子
+    private void access(int x) {
+        int last = NIL;
+        for (int y = x; y != NIL; y = parent[y]) {
+            splay(y);
+            right[y] = last;
+            pull(y);
+            last = y;
+        }
+        splay(x);
+    }
+
+    private void makeRoot(int x) {
+        access(x);
+        toggle(x);
+    }
+
+    private int findRoot(int x) {
+        access(x);
+        while (true) {
+            push(x);
+            if (left[x] == NIL) break;
+            x = left[x];
+        }
+        splay(x);
+        return x;
+    }
+
+    // 调用方保证 x、y 不连通
+    private void link(int x, int y) {
+        makeRoot(x);
+        parent[x] = y;
+    }
+
+    // 调用方保证 x、y 之间有一条树边
+    private void cut(int x, int y) {
+        makeRoot(x);
+        access(y);
+        left[y] = NIL;
+        parent[x] = NIL;
+        pull(y);
+    }
+
+    /* ------------------ 辅助 ------------------ */
+
+    private static long key(int u, int v) {
+        return ((long) Math.min(u, v) << 32) | Math.max(u, v);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("动态最小生成树已关闭");
+        }
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= n) {
+            throw new IllegalArgumentException("顶点索引越界: " + vertex);
+        }
+    }
+}
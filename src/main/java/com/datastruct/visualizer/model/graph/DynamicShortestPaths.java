@@ -0,0 +1,362 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+
+/**
+ * 动态单源最短路径
+ * Incremental single-source shortest paths with Ramalingam–Reps style local repair
+ *
+ * 创建时计算一次最短路径树，之后监听图的修改事件，只修复受影响的部分：
+ * 加边或权重变小时，从边的终点开始做一次只推进被改进顶点的 Dijkstra；
+ * 删边或权重变大时，只有最短路径树上的边才会产生影响。先按旧距离从小到大检查该边终点的子树，
+ * 能找到另一条等长入边（来自未受影响的顶点）的顶点保持不变，其余顶点标记为受影响；
+ * 再用未受影响顶点的距离为受影响顶点赋初值，在受影响集合内运行 Dijkstra。
+ * 因此一次修改只访问距离实际改变的区域及其邻边。
+ *
+ * 局部修复要求边权非负。图中存在负权边时，每次修改都改用 MST.spfa 重新计算（可检测负权回路）。
+ * 顶点的增删与 GRAPH_RESET 也会重新计算；源点被删除后结构失效，查询会抛出异常。
+ * 不再使用时应调用 close() 移除监听器。
+ */
+public final class DynamicShortestPaths implements AutoCloseable {
+
+    private final Graph graph;
+    private final GraphChangeListener listener = this::onGraphChanged;
+    private int source;
+    private int n;
+    private double[] dist;
+    private int[] prev;
+    private boolean negativeCycle;
+    // 有向图的入边（终点 -> (起点 -> 权重)），不含自环；无向图的入边即邻接边，为 null
+    private List<Map<Integer, Double>> inEdges;
+    // 图中是否有负权边，有则无法局部修复
+    private boolean hasNegative;
+    private IndexedMinHeap heap;
+    private boolean[] affected;
+    private int lastRepairSize;
+    private boolean closed;
+
+    public DynamicShortestPaths(Graph graph, int source) {
+        this.graph = Objects.requireNonNull(graph);
+        if (source < 0 || source >= graph.getNumVertices()) {
+            throw new IllegalArgumentException("源点索引越界");
+        }
+        this.source = source;
+        synchronized (this) {
+            rebuild();
+        }
+        graph.addChangeListener(listener);
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * 当前的源点编号（删除编号更小的顶点后会随之减一）
+     */
+    public synchronized int getSource() {
+        checkValid();
+        return source;
+    }
+
+    public synchronized double getDistance(int vertex) {
+        checkValid();
+        checkVertex(vertex);
+        return dist[vertex];
+    }
+
+    public synchronized int getPredecessor(int vertex) {
+        checkValid();
+        checkVertex(vertex);
+        return prev[vertex];
+    }
+
+    public synchronized boolean hasNegativeCycle() {
+        checkValid();
+        return negativeCycle;
+    }
+
+    /**
+     * 从源点到 vertex 的路径（不可达返回空列表；存在负权回路时抛出异常）
+     */
+    public synchronized List<Integer> getPath(int vertex) {
+        return toResult().getPath(vertex);
+    }
+
+    /**
+     * 当前结果的快照，与 MST.dijkstra / MST.spfa 的返回类型相同
+     */
+    public synchronized MST.ShortestPathResult toResult() {
+        checkValid();
+        return new MST.ShortestPathResult(dist.clone(), prev.clone(), negativeCycle);
+    }
+
+    /**
+     * 当前维护结果所用的算法：边权非负时为局部修复的 Dijkstra，存在负权边时为每次修改都重新运行的 SPFA
+     */
+    public synchronized String getAlgorithmName() {
+        return hasNegative ? "SPFA" : "Dijkstra（增量）";
+    }
+
+    /**
+     * 最近一次修改中距离或前驱被重新计算的顶点数（整体重新计算时为顶点总数）
+     */
+    public synchronized int getLastRepairSize() {
+        return lastRepairSize;
+    }
+
+    /**
+     * 源点已被删除或已关闭时为 false
+     */
+    public synchronized boolean isValid() {
+        return !closed && source >= 0;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            graph.removeChangeListener(listener);
+        }
+    }
+
+    /* ------------------ 事件处理 ------------------ */
+
+    private synchronized void onGraphChanged(GraphChangeEvent event) {
+        if (closed || source < 0) {
+            return;
+        }
+        switch (event.getType()) {
+            case EDGE_ADDED, EDGE_REMOVED, WEIGHT_CHANGED -> edgeChanged(event);
+            case VERTEX_REMOVED -> {
+                int vertex = event.getVertex();
+                if (vertex == source) {
+                    source = -1;
+                    return;
+                }
+                if (vertex < source) {
+                    source--;
+                }
+                rebuild();
+            }
+            case VERTEX_ADDED -> rebuild();
+            case GRAPH_RESET -> {
+                if (source >= graph.getNumVertices()) {
+                    source = -1;
+                    return;
+                }
+                rebuild();
+            }
+        }
+    }
+
+    private void edgeChanged(GraphChangeEvent event) {
+        int u = event.getSource();
+        int v = event.getDestination();
+        // 缺失的一侧视为无穷大：加边是从无穷大变小，删边是变为无穷大
+        double oldWeight = event.getType() == GraphChangeEvent.Type.EDGE_ADDED ? Double.POSITIVE_INFINITY : event.getOldWeight();
+        double newWeight = event.getType() == GraphChangeEvent.Type.EDGE_REMOVED ? Double.POSITIVE_INFINITY : event.getNewWeight();
+
+        boolean wasNegative = hasNegative;
+        if (newWeight < 0) {
+            hasNegative = true;
+        } else if (oldWeight < 0) {
+            // 去掉了一条负权边，其他负权边是否还在需要重新检查
+            hasNegative = graph.getEdgeBuffer().hasNegativeWeight();
+        }
+        if (inEdges != null && u != v) {
+            if (newWeight == Double.POSITIVE_INFINITY) {
+                inEdges.get(v).remove(u);
+            } else {
+                inEdges.get(v).put(u, newWeight);
+            }
+        }
+        if (wasNegative || hasNegative) {
+            recompute();
+            return;
+        }
+        if (u == v) {
+            // 非负自环不影响最短路径
+            lastRepairSize = 0;
+            return;
+        }
+
+        lastRepairSize = 0;
+        if (newWeight < oldWeight) {
+            relaxFrom(u, v, newWeight);
+            if (!graph.isDirected()) {
+                relaxFrom(v, u, newWeight);
+            }
+        } else {
+            // 无向边的两个方向同时变化，受影响的子树需要一起修复
+            IntStack roots = new IntStack(2);
+            if (prev[v] == u) roots.push(v);
+            if (!graph.isDirected() && prev[u] == v) roots.push(u);
+            if (!roots.isEmpty()) {
+                repairIncrease(roots);
+            }
+        }
+    }
+
+    /* ------------------ 局部修复 ------------------ */
+
+    // 边 (u, v) 变短：从 v 开始只推进距离被改进的顶点
+    private void relaxFrom(int u, int v, double weight) {
+        double alt = dist[u] + weight;
+        if (!(alt < dist[v])) {
+            return;
+        }
+        dist[v] = alt;
+        prev[v] = u;
+        heap.insert(v, alt);
+        while (!heap.isEmpty()) {
+            int x = heap.extractMin();
+            lastRepairSize++;
+            double dx = dist[x];
+            graph.forEachNeighbor(x, (y, w) -> {
+                double candidate = dx + w;
+                if (candidate < dist[y]) {
+                    dist[y] = candidate;
+                    prev[y] = x;
+                    heap.insertOrDecrease(y, candidate);
+                }
+            });
+        }
+    }
+
+    // 树边变长或被删除，roots 为这些树边的终点
+    private void repairIncrease(IntStack roots) {
+        // 1. 按旧距离从小到大检查子树：有等长的替代入边则保持不变，否则标记为受影响并继续检查其子节点
+        IntStack changed = new IntStack();
+        for (int i = 0; i < roots.size(); i++) {
+            heap.insertOrDecrease(roots.get(i), dist[roots.get(i)]);
+        }
+        while (!heap.isEmpty()) {
+            int x = heap.extractMin();
+            int parent = alternativeParent(x);
+            if (parent >= 0) {
+                prev[x] = parent;
+                continue;
+            }
+            affected[x] = true;
+            changed.push(x);
+            graph.forEachNeighbor(x, (y, w) -> {
+                if (prev[y] == x && !affected[y] && y != source) {
+                    heap.insertOrDecrease(y, dist[y]);
+                }
+            });
+        }
+
+        // 2. 受影响顶点的初值只取自未受影响的入边
+        for (int i = 0; i < changed.size(); i++) {
+            int x = changed.get(i);
+            dist[x] = Double.POSITIVE_INFINITY;
+            prev[x] = -1;
+        }
+        for (int i = 0; i < changed.size(); i++) {
+            int x = changed.get(i);
+            forEachInEdge(x, (p, w) -> {
+                if (!affected[p] && dist[p] + w < dist[x]) {
+                    dist[x] = dist[p] + w;
+                    prev[x] = p;
+                }
+            });
+            if (dist[x] != Double.POSITIVE_INFINITY) {
+                heap.insert(x, dist[x]);
+            }
+        }
+
+        // 3. 在受影响集合内运行 Dijkstra；出堆即确定，清除标记
+        while (!heap.isEmpty()) {
+            int x = heap.extractMin();
+            affected[x] = false;
+            double dx = dist[x];
+            graph.forEachNeighbor(x, (y, w) -> {
+                if (affected[y] && dx + w < dist[y]) {
+                    dist[y] = dx + w;
+                    prev[y] = x;
+                    heap.insertOrDecrease(y, dist[y]);
+                }
+            });
+        }
+        for (int i = 0; i < changed.size(); i++) {
+            affected[changed.get(i)] = false;
+        }
+        lastRepairSize = changed.size();
+    }
+
+    /**
+     * 寻找 x 的等长替代父节点：来自既未受影响、也不在待检查队列中的顶点，且边权为正。
+     * 边权为正保证父节点的旧距离严格更小、已经检查完毕，且不会是 x 的后代。找不到返回 -1
+     */
+    private int alternativeParent(int x) {
+        int[] found = { -1 };
+        double target = dist[x];
+        forEachInEdge(x, (p, w) -> {
+            if (found[0] < 0 && w > 0 && !affected[p] && !heap.contains(p) && dist[p] + w == target) {
+                found[0] = p;
+            }
+        });
+        return found[0];
+    }
+
+    private void forEachInEdge(int vertex, Graph.NeighborVisitor visitor) {
+        if (inEdges == null) {
+            graph.forEachNeighbor(vertex, visitor);
+            return;
+        }
+        for (Map.Entry<Integer, Double> e : inEdges.get(vertex).entrySet()) {
+            visitor.visit(e.getKey(), e.getValue());
+        }
+    }
+
+    /* ------------------ 整体重新计算 ------------------ */
+
+    // 顶点数变化或初次创建：重建入边索引后重新计算
+    private void rebuild() {
+        n = graph.getNumVertices();
+        EdgeBuffer edges = graph.getEdgeBuffer();
+        hasNegative = edges.hasNegativeWeight();
+        inEdges = null;
+        if (graph.isDirected()) {
+            inEdges = new ArrayList<>(n);
+            for (int v = 0; v < n; v++) {
+                inEdges.add(new HashMap<>());
+            }
+        }
+        for (int i = 0; i < edges.size(); i++) {
+            int u = edges.sourceAt(i);
+            int v = edges.destinationAt(i);
+            double w = edges.weightAt(i);
+            if (inEdges != null && u != v) {
+                inEdges.get(v).put(u, w);
+            }
+        }
+        heap = new IndexedDaryHeap(n);
+        affected = new boolean[n];
+        recompute();
+    }
+
+    private void recompute() {
+        MST.ShortestPathResult result = hasNegative ? MST.spfa(graph, source) : MST.dijkstra(graph, source);
+        dist = result.getDistances();
+        prev = result.getPredecessors();
+        negativeCycle = result.hasNegativeCycle();
+        lastRepairSize = n;
+    }
+
+    private void checkValid() {
+        if (closed) {
+            throw new IllegalStateException("动态最短路径已关闭");
+        }
+        if (source < 0) {
+            throw new IllegalStateException("源点已被删除");
+        }
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= n) {
+            throw new IllegalArgumentException("顶点索引越界: " + vertex);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.Arrays;
+
+/**
+ * 可复用的边缓冲区：以并行的原始数组保存起点、终点与权重
+ * Reusable struct-of-arrays edge buffer
+ *
+ * 用于替代 getAllEdges() 为每条边分配一个 Edge 对象的做法：调用方持有一个缓冲区，
+ * 每次通过 Graph.fillEdges 重新填充，容量只增不减。边的顺序与 getAllEdges() 一致。
+ * 只读缓冲区（见 asReadOnly）与原缓冲区共享数组，任何修改操作都会抛出异常。
+ */
+public final class EdgeBuffer {
+
+    private int[] sources;
+    private int[] destinations;
+    private double[] weights;
+    private int size;
+    private final boolean readOnly;
+
+    public EdgeBuffer() {
+        this(16);
+    }
+
+    public EdgeBuffer(int capacity) {
+        int c = Math.max(1, capacity);
+        this.sources = new int[c];
+        this.destinations = new int[c];
+        this.weights = new double[c];
+        this.readOnly = false;
+    }
+
+    private EdgeBuffer(EdgeBuffer other) {
+        this.sources = other.sources;
+        this.destinations = other.destinations;
+        this.weights = other.weights;
+        this.size = other.size;
+        this.readOnly = true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int sourceAt(int index) {
+        checkIndex(index);
+        return sources[index];
+    }
+
+    public int destinationAt(int index) {
+        checkIndex(index);
+        return destinations[index];
+    }
+
+    public double weightAt(int index) {
+        checkIndex(index);
+        return weights[index];
+    }
+
+    /**
+     * 按需构造单条边的 Edge 对象（只在确实需要对象时使用）
+     */
+    public Edge edgeAt(int index) {
+        checkIndex(index);
+        return new Edge(sources[index], destinations[index], weights[index]);
+    }
+
+    public void add(int source, int destination, double weight) {
+        checkWritable();
+        if (size == sources.length) {
+            grow(size + 1);
+        }
+        sources[size] = source;
+        destinations[size] = destination;
+        weights[size] = weight;
+        size++;
+    }
+
+    /**
+     * 清空缓冲区（保留已分配的容量）
+     */
+    public void clear() {
+        checkWritable();
+        size = 0;
+    }
+
+    public void ensureCapacity(int capacity) {
+        checkWritable();
+        if (capacity > sources.length) {
+            grow(capacity);
+        }
+    }
+
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * 返回共享底层数组的只读视图（内容为调用时的前 size 条边）。
+     * 原缓冲区之后被清空或重新填充时，视图内容也可能随之改变。
+     */
+    public EdgeBuffer asReadOnly() {
+        return readOnly ? this : new EdgeBuffer(this);
+    }
+
+    /**
+     * 是否存在负权边
+     */
+    public boolean hasNegativeWeight() {
+        for (int i = 0; i < size; i++) {
+            if (weights[i] < 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 返回按权重升序排列的边下标（稳定排序：权重相同的边保持原有顺序）
+     */
+    public int[] sortedByWeight() {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        if (size > 1) {
+            mergeSort(order, new int[size], 0, size);
+        }
+        return order;
+    }
+
+    // 自顶向下归并排序，小区间使用插入排序
+    private void mergeSort(int[] a, int[] tmp, int lo, int hi) {
+        if (hi - lo <= 16) {
+            for (int i = lo + 1; i < hi; i++) {
+                int x = a[i];
+                double w = weights[x];
+                int j = i - 1;
+                while (j >= lo && Double.compare(weights[a[j]], w) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = x;
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid);
+        mergeSort(a, tmp, mid, hi);
+        if (Double.compare(weights[a[mid - 1]], weights[a[mid]]) <= 0) {
+            return;
+        }
+        System.arraycopy(a, lo, tmp, lo, hi - lo);
+        int i = lo;
+        int j = mid;
+        for (int k = lo; k < hi; k++) {
+            if (j >= hi || (i < mid && Double.compare(weights[tmp[i]], weights[tmp[j]]) <= 0)) {
+                a[k] = tmp[i++];
+            } else {
+                a[k] = tmp[j++];
+            }
+        }
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, sources.length + (sources.length >> 1) + 1);
+        sources = Arrays.copyOf(sources, capacity);
+        destinations = Arrays.copyOf(destinations, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("边下标越界: " + index);
+        }
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("只读边缓冲区不可修改");
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.datastruct.visualizer.model.graph;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 图的抽象基类
@@ -10,17 +12,16 @@ public abstract class Graph {
     
     protected int numVertices;
     protected boolean isDirected;
-    protected Map<Integer, String> vertexLabels;
+    // 默认标签为顶点索引，只有自定义标签才会实际存储
+    private final VertexLabelStore vertexLabels;
+    // 修改版本号：每次结构或权重变化后递增
+    private final AtomicLong version = new AtomicLong();
+    private final List<GraphChangeListener> changeListeners = new CopyOnWriteArrayList<>();
     
     public Graph(int numVertices, boolean isDirected) {
         this.numVertices = numVertices;
         this.isDirected = isDirected;
-        this.vertexLabels = new HashMap<>();
-        
-        // 默认标签为顶点索引
-        for (int i = 0; i < numVertices; i++) {
-            vertexLabels.put(i, String.valueOf(i));
-        }
+        this.vertexLabels = new VertexLabelStore();
     }
     
     // 抽象方法 - 子类必须实现
@@ -30,7 +31,56 @@ public abstract class Graph {
     public abstract double getWeight(int source, int destination);
     public abstract List<Integer> getNeighbors(int vertex);
     public abstract List<Edge> getAllEdges();
+
+    /**
+     * 邻接顶点访问器：一次回调同时给出邻接顶点和边权，避免装箱与重复查找权重
+     */
+    @FunctionalInterface
+    public interface NeighborVisitor {
+        void visit(int neighbor, double weight);
+    }
+
+    /**
+     * 依次访问顶点的所有邻接顶点及对应边权，顺序与 getNeighbors 一致。
+     * 默认实现基于 getNeighbors/getWeight，存储类应重写为无分配的遍历。
+     */
+    public void forEachNeighbor(int vertex, NeighborVisitor visitor) {
+        for (int neighbor : getNeighbors(vertex)) {
+            visitor.visit(neighbor, getWeight(vertex, neighbor));
+        }
+    }
     
+    /**
+     * 边数，与 getAllEdges().size() 一致（无向图的每条边按两个方向计数）。
+     * 默认实现会物化所有边，存储类可重写为 O(1)。
+     */
+    public int getNumEdges() {
+        return getAllEdges().size();
+    }
+
+    /**
+     * 把所有边写入调用方提供的缓冲区（先清空），顺序与 getAllEdges() 一致，
+     * 每条边不再分配 Edge 对象。默认实现基于 forEachNeighbor；
+     * getAllEdges 与 forEachNeighbor 不一致的存储类（如邻接矩阵的对角线）需要重写。
+     */
+    public void fillEdges(EdgeBuffer buffer) {
+        buffer.clear();
+        buffer.ensureCapacity(getNumEdges());
+        for (int u = 0; u < numVertices; u++) {
+            final int source = u;
+            forEachNeighbor(u, (v, w) -> buffer.add(source, v, w));
+        }
+    }
+
+    /**
+     * 返回包含所有边的只读缓冲区。默认每次新建并填充，不可变的图可以缓存结果。
+     */
+    public EdgeBuffer getEdgeBuffer() {
+        EdgeBuffer buffer = new EdgeBuffer(getNumEdges());
+        fillEdges(buffer);
+        return buffer.asReadOnly();
+    }
+
     // 动态顶点操作方法
     public abstract void addVertex(String label);
     public abstract void removeVertex(int vertex);
@@ -43,68 +93,138 @@ public abstract class Graph {
     public boolean isDirected() {
         return isDirected;
     }
+
+    /**
+     * 是否按邻接矩阵的语义存储：对角线默认存在（权重 0），forEachNeighbor/hasEdge 能看到它，
+     * 但不计入 getAllEdges/getNumEdges。界面显示、序列化与算法选择（稠密 Dijkstra、Floyd-Warshall）
+     * 应以此判断存储类型，而不是检查具体的类，以便 VersionedGraph 等包装保留矩阵语义。
+     */
+    public boolean isMatrixBacked() {
+        return false;
+    }
     
     public void setVertexLabel(int vertex, String label) {
         if (vertex >= 0 && vertex < numVertices) {
-            vertexLabels.put(vertex, label);
+            vertexLabels.set(vertex, label);
         }
     }
 
     /**
      * 将所有顶点标签重置为当前索引字符串，确保显示与内部索引一致。
+     * 没有自定义标签时为 O(1)。
      */
     public void resetVertexLabelsToIndex() {
-        for (int i = 0; i < numVertices; i++) {
-            vertexLabels.put(i, String.valueOf(i));
-        }
+        vertexLabels.clear();
     }
     
     public String getVertexLabel(int vertex) {
-        return vertexLabels.getOrDefault(vertex, String.valueOf(vertex));
+        return vertexLabels.get(vertex);
+    }
+    
+    /**
+     * 按标签查找顶点索引（自定义标签优先，其次是与索引相同的默认标签），找不到返回 -1
+     */
+    public int findVertexByLabel(String label) {
+        return vertexLabels.indexOf(label, numVertices);
     }
     
+    /**
+     * 返回所有顶点标签的副本（O(V)），只需单个标签时请使用 getVertexLabel
+     */
     public Map<Integer, String> getAllVertexLabels() {
-        return new HashMap<>(vertexLabels);
+        return vertexLabels.toMap(numVertices);
     }
     
-    // 深度优先搜索
+    /* ------------------ 修改版本与事件 ------------------ */
+
+    /**
+     * 单调递增的修改版本号，版本相同说明图的顶点、边与权重都没有变化（标签除外）
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    public void addChangeListener(GraphChangeListener listener) {
+        changeListeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeChangeListener(GraphChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    protected boolean hasChangeListeners() {
+        return !changeListeners.isEmpty();
+    }
+
+    protected void fireVertexAdded(int vertex) {
+        fire(GraphChangeEvent.Type.VERTEX_ADDED, vertex, -1, Double.NaN, Double.NaN);
+    }
+
+    protected void fireVertexRemoved(int vertex) {
+        fire(GraphChangeEvent.Type.VERTEX_REMOVED, vertex, -1, Double.NaN, Double.NaN);
+    }
+
+    protected void fireGraphReset() {
+        fire(GraphChangeEvent.Type.GRAPH_RESET, -1, -1, Double.NaN, Double.NaN);
+    }
+
+    /**
+     * 根据一条边修改前后的状态发出 EDGE_ADDED / EDGE_REMOVED / WEIGHT_CHANGED，状态未变时什么也不做
+     */
+    protected void fireEdgeChange(int source, int destination, boolean existed, double oldWeight,
+                                  boolean exists, double newWeight) {
+        if (existed && exists) {
+            if (Double.compare(oldWeight, newWeight) != 0) {
+                fire(GraphChangeEvent.Type.WEIGHT_CHANGED, source, destination, oldWeight, newWeight);
+            }
+        } else if (exists) {
+            fire(GraphChangeEvent.Type.EDGE_ADDED, source, destination, Double.NaN, newWeight);
+        } else if (existed) {
+            fire(GraphChangeEvent.Type.EDGE_REMOVED, source, destination, oldWeight, Double.NaN);
+        }
+    }
+
+    // 没有监听器时只递增版本号，不创建事件对象。
+    // 版本号在这里分配，并发的子类要在串行化修改的锁内调用，事件才会按版本号顺序到达（见 ConcurrentGraph）
+    private void fire(GraphChangeEvent.Type type, int source, int destination, double oldWeight, double newWeight) {
+        long v = version.incrementAndGet();
+        if (changeListeners.isEmpty()) {
+            return;
+        }
+        GraphChangeEvent event = new GraphChangeEvent(this, type, v, source, destination, oldWeight, newWeight);
+        for (GraphChangeListener listener : changeListeners) {
+            listener.graphChanged(event);
+        }
+    }
+
+    // 深度优先搜索（显式栈，深图不会栈溢出）
     public List<Integer> depthFirstSearch(int startVertex) {
         List<Integer> result = new ArrayList<>();
         boolean[] visited = new boolean[numVertices];
-        dfsHelper(startVertex, visited, result);
+        DepthFirstTraversal.traverse(this, startVertex, visited, (vertex, parent) -> result.add(vertex));
         return result;
     }
     
-    private void dfsHelper(int vertex, boolean[] visited, List<Integer> result) {
-        visited[vertex] = true;
-        result.add(vertex);
-        
-        for (int neighbor : getNeighbors(vertex)) {
-            if (!visited[neighbor]) {
-                dfsHelper(neighbor, visited, result);
-            }
-        }
-    }
-    
-    // 广度优先搜索
+    // 广度优先搜索（每个顶点只入队一次，队列用定长 int 数组）
     public List<Integer> breadthFirstSearch(int startVertex) {
         List<Integer> result = new ArrayList<>();
         boolean[] visited = new boolean[numVertices];
-        Queue<Integer> queue = new LinkedList<>();
+        int[] queue = new int[numVertices];
+        int[] tail = { 0 };
         
         visited[startVertex] = true;
-        queue.offer(startVertex);
+        queue[tail[0]++] = startVertex;
         
-        while (!queue.isEmpty()) {
-            int vertex = queue.poll();
+        for (int head = 0; head < tail[0]; head++) {
+            int vertex = queue[head];
             result.add(vertex);
             
-            for (int neighbor : getNeighbors(vertex)) {
+            forEachNeighbor(vertex, (neighbor, weight) -> {
                 if (!visited[neighbor]) {
                     visited[neighbor] = true;
-                    queue.offer(neighbor);
+                    queue[tail[0]++] = neighbor;
                 }
-            }
+            });
         }
         
         return result;
@@ -101,33 +101,26 @@ public class GraphAlgorithms {
         steps.add(new DFSStep(DFSStep.StepType.START, startVertex, -1, 
                   "开始深度优先搜索，起始顶点: " + startVertex));
         
-        dfsHelper(graph, startVertex, visited, visitOrder, steps, -1);
+        DepthFirstTraversal.traverse(graph, startVertex, visited, new DepthFirstTraversal.Visitor() {
+            @Override
+            public void visit(int vertex, int parent) {
+                visitOrder.add(vertex);
+                steps.add(new DFSStep(DFSStep.StepType.VISIT, vertex, parent, 
+                          "访问顶点 " + vertex));
+            }
+            
+            @Override
+            public void backtrack(int vertex, int parent) {
+                steps.add(new DFSStep(DFSStep.StepType.BACKTRACK, vertex, parent, 
+                          "回溯到顶点 " + parent));
+            }
+        });
         
         steps.add(new DFSStep(DFSStep.StepType.COMPLETE, -1, -1, "深度优先搜索完成"));
         
         return new DFSResult(visitOrder, steps);
     }
     
-    private static void dfsHelper(Graph graph, int vertex, boolean[] visited, 
-                                 List<Integer> visitOrder, List<DFSStep> steps, int parent) {
-        visited[vertex] = true;
-        visitOrder.add(vertex);
-        
-        steps.add(new DFSStep(DFSStep.StepType.VISIT, vertex, parent, 
-                  "访问顶点 " + vertex));
-        
-        for (int neighbor : graph.getNeighbors(vertex)) {
-            if (!visited[neighbor]) {
-                dfsHelper(graph, neighbor, visited, visitOrder, steps, vertex);
-            }
-        }
-        
-        if (parent != -1) {
-            steps.add(new DFSStep(DFSStep.StepType.BACKTRACK, vertex, parent, 
-                      "回溯到顶点 " + parent));
-        }
-    }
-    
     /**
      * 执行带步骤记录的BFS
      */
@@ -135,7 +128,7 @@ public class GraphAlgorithms {
         List<Integer> visitOrder = new ArrayList<>();
         List<BFSStep> steps = new ArrayList<>();
         boolean[] visited = new boolean[graph.getNumVertices()];
-        Queue<Integer> queue = new LinkedList<>();
+        Queue<Integer> queue = new ArrayDeque<>();
         
         visited[startVertex] = true;
         queue.offer(startVertex);
@@ -153,7 +146,7 @@ public class GraphAlgorithms {
             steps.add(new BFSStep(BFSStep.StepType.VISIT, vertex, queue,
                       "访问顶点 " + vertex));
             
-            for (int neighbor : graph.getNeighbors(vertex)) {
+            graph.forEachNeighbor(vertex, (neighbor, weight) -> {
                 if (!visited[neighbor]) {
                     visited[neighbor] = true;
                     queue.offer(neighbor);
@@ -161,7 +154,7 @@ public class GraphAlgorithms {
                     steps.add(new BFSStep(BFSStep.StepType.ENQUEUE, neighbor, queue,
                               "将邻接顶点 " + neighbor + " 加入队列"));
                 }
-            }
+            });
         }
         
         steps.add(new BFSStep(BFSStep.StepType.COMPLETE, -1, queue, "广度优先搜索完成"));
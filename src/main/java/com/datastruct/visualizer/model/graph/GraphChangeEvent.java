@@ -0,0 +1,106 @@
+package com.datastruct.visualizer.model.graph;
+
+/**
+ * 图的修改事件
+ * Fine-grained graph mutation event
+ *
+ * 无向图的一条边只产生一个事件（source/destination 为调用时的顺序）。
+ * VERTEX_ADDED / VERTEX_REMOVED 隐含顶点重新编号：新增顶点插入到 vertex 处（通常是末尾），
+ * 删除顶点时与之相连的边一并删除，不再单独产生边事件，大于 vertex 的顶点编号减一。
+ * GRAPH_RESET 表示整张图被替换（如撤销/重做），消费者应当完全重建。
+ */
+public final class GraphChangeEvent {
+
+    public enum Type {
+        VERTEX_ADDED,
+        VERTEX_REMOVED,
+        EDGE_ADDED,
+        EDGE_REMOVED,
+        WEIGHT_CHANGED,
+        GRAPH_RESET
+    }
+
+    private final Graph graph;
+    private final Type type;
+    private final long version;
+    private final int source;
+    private final int destination;
+    private final double oldWeight;
+    private final double newWeight;
+
+    GraphChangeEvent(Graph graph, Type type, long version, int source, int destination,
+                     double oldWeight, double newWeight) {
+        this.graph = graph;
+        this.type = type;
+        this.version = version;
+        this.source = source;
+        this.destination = destination;
+        this.oldWeight = oldWeight;
+        this.newWeight = newWeight;
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 该修改完成后图的版本号
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * 顶点事件中的顶点，或边事件的起点；GRAPH_RESET 为 -1
+     */
+    public int getVertex() {
+        return source;
+    }
+
+    public int getSource() {
+        return source;
+    }
+
+    /**
+     * 边事件的终点，顶点事件为 -1
+     */
+    public int getDestination() {
+        return destination;
+    }
+
+    /**
+     * 修改前的权重（EDGE_REMOVED、WEIGHT_CHANGED），否则为 NaN
+     */
+    public double getOldWeight() {
+        return oldWeight;
+    }
+
+    /**
+     * 修改后的权重（EDGE_ADDED、WEIGHT_CHANGED），否则为 NaN
+     */
+    public double getNewWeight() {
+        return newWeight;
+    }
+
+    public boolean isVertexEvent() {
+        return type == Type.VERTEX_ADDED || type == Type.VERTEX_REMOVED;
+    }
+
+    public boolean isEdgeEvent() {
+        return type == Type.EDGE_ADDED || type == Type.EDGE_REMOVED || type == Type.WEIGHT_CHANGED;
+    }
+
+    @Override
+    public String toString() {
+        return switch (type) {
+            case VERTEX_ADDED, VERTEX_REMOVED -> String.format("%s{v=%d, version=%d}", type, source, version);
+            case GRAPH_RESET -> String.format("%s{version=%d}", type, version);
+            default -> String.format("%s{%d -> %d, %.2f -> %.2f, version=%d}",
+                    type, source, destination, oldWeight, newWeight, version);
+        };
+    }
+}
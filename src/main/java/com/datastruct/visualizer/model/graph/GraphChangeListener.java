@@ -0,0 +1,12 @@
+package com.datastruct.visualizer.model.graph;
+
+/**
+ * 图修改监听器
+ * Listener notified after each graph mutation
+ *
+ * 回调在执行修改的线程上同步调用，应尽快返回。
+ */
+@FunctionalInterface
+public interface GraphChangeListener {
+    void graphChanged(GraphChangeEvent event);
+}
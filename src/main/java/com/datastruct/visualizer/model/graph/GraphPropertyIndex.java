@@ -0,0 +1,283 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+
+/**
+ * 图的结构属性索引
+ * Graph property index kept up to date from change events
+ *
+ * 创建时扫描一次图，之后监听修改事件增量维护：边权的多重集合（负权、最小/最大权、是否等权）、
+ * 连通分量（有向图为弱连通）与无环性。加边只需一次并查集合并；删边可能拆开分量，只标记为过期，
+ * 下次查询时再重新计算。有向图额外维护一个拓扑序：加入的边 u -> v 在序中从前指向后时序仍然有效，
+ * 否则标记为过期；删边不会产生环。顶点的增删与 GRAPH_RESET 使所有属性过期。
+ *
+ * 无向图的一条边只计一次（与事件一致）。与 getEdgeBuffer 一致，邻接矩阵的对角线不视为边。
+ * 不再使用时应调用 close() 移除监听器。
+ */
+public final class GraphPropertyIndex implements AutoCloseable {
+
+    private final Graph graph;
+    private final GraphChangeListener listener = this::onGraphChanged;
+    // 自环是否算作边（邻接矩阵的对角线不算）；图被整体替换后可能改变，重建时重新判断
+    private boolean selfLoopsAreEdges;
+    private boolean closed;
+
+    // 边权 -> 出现次数
+    private final TreeMap<Double, Integer> weights = new TreeMap<>();
+    private int weightedEdges;
+    private int negativeEdges;
+
+    private UnionFind components;
+    private boolean componentsStale = true;
+
+    // 有向图的拓扑序；acyclic 只在 orderStale 为 false 时有意义
+    private int[] order;
+    private int[] position;
+    private boolean acyclic;
+    private boolean orderStale = true;
+
+    public GraphPropertyIndex(Graph graph) {
+        this.graph = Objects.requireNonNull(graph);
+        synchronized (this) {
+            rebuildWeights();
+        }
+        graph.addChangeListener(listener);
+    }
+
+    public Graph getGraph() {
+        return graph;
+    }
+
+    public int getNumVertices() {
+        return graph.getNumVertices();
+    }
+
+    /**
+     * 边数（无向图每条边计一次）
+     */
+    public synchronized int getNumEdges() {
+        checkOpen();
+        return weightedEdges;
+    }
+
+    /**
+     * 边数与简单图最大边数之比，取值 [0, 1]（自环使其可能略大于 1）
+     */
+    public synchronized double getDensity() {
+        checkOpen();
+        long n = graph.getNumVertices();
+        long max = graph.isDirected() ? n * (n - 1) : n * (n - 1) / 2;
+        return max == 0 ? 0.0 : (double) weightedEdges / max;
+    }
+
+    public synchronized boolean hasNegativeWeight() {
+        checkOpen();
+        return negativeEdges > 0;
+    }
+
+    /**
+     * 最小边权，没有边时为 NaN
+     */
+    public synchronized double getMinWeight() {
+        checkOpen();
+        return weights.isEmpty() ? Double.NaN : weights.firstKey();
+    }
+
+    public synchronized double getMaxWeight() {
+        checkOpen();
+        return weights.isEmpty() ? Double.NaN : weights.lastKey();
+    }
+
+    /**
+     * 所有边的权重都相同（没有边时也为 true）
+     */
+    public synchronized boolean hasUniformWeights() {
+        checkOpen();
+        return weights.size() <= 1;
+    }
+
+    /**
+     * 连通分量数；有向图按弱连通计算
+     */
+    public synchronized int getComponentCount() {
+        checkOpen();
+        refreshComponents();
+        return components.getComponentCount();
+    }
+
+    public synchronized boolean isConnected() {
+        return getComponentCount() <= 1;
+    }
+
+    public synchronized boolean connected(int u, int v) {
+        checkOpen();
+        refreshComponents();
+        return components.connected(u, v);
+    }
+
+    /**
+     * 有向图：不含有向环；无向图：是森林（不含自环与回路）
+     */
+    public synchronized boolean isAcyclic() {
+        checkOpen();
+        if (!graph.isDirected()) {
+            // 森林的边数恰好等于顶点数减去分量数
+            refreshComponents();
+            return weightedEdges == graph.getNumVertices() - components.getComponentCount();
+        }
+        refreshOrder();
+        return acyclic;
+    }
+
+    /**
+     * 有向无环图的一个拓扑序
+     */
+    public synchronized int[] getTopologicalOrder() {
+        checkOpen();
+        if (!graph.isDirected()) {
+            throw new IllegalStateException("无向图没有拓扑序");
+        }
+        refreshOrder();
+        if (!acyclic) {
+            throw new IllegalStateException("图中存在有向环，没有拓扑序");
+        }
+        return order.clone();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            graph.removeChangeListener(listener);
+        }
+    }
+
+    /* ------------------ 事件处理 ------------------ */
+
+    private synchronized void onGraphChanged(GraphChangeEvent event) {
+        if (closed) {
+            return;
+        }
+        int u = event.getSource();
+        int v = event.getDestination();
+        if (event.isEdgeEvent() && u == v && !selfLoopsAreEdges) {
+            return;
+        }
+        switch (event.getType()) {
+            case EDGE_ADDED -> {
+                addWeight(event.getNewWeight());
+                if (!componentsStale) {
+                    components.union(u, v);
+                }
+                if (!orderStale && acyclic && (u == v || position[u] > position[v])) {
+                    // 可能成环，也可能只是需要调整拓扑序
+                    orderStale = true;
+                }
+            }
+            case EDGE_REMOVED -> {
+                removeWeight(event.getOldWeight());
+                componentsStale = true;
+                if (!orderStale && !acyclic) {
+                    orderStale = true;
+                }
+            }
+            case WEIGHT_CHANGED -> {
+                removeWeight(event.getOldWeight());
+                addWeight(event.getNewWeight());
+            }
+            default -> {
+                rebuildWeights();
+            }
+        }
+    }
+
+    private void addWeight(double w) {
+        weights.merge(w, 1, Integer::sum);
+        weightedEdges++;
+        if (w < 0) negativeEdges++;
+    }
+
+    private void removeWeight(double w) {
+        int count = weights.get(w);
+        if (count == 1) {
+            weights.remove(w);
+        } else {
+            weights.put(w, count - 1);
+        }
+        weightedEdges--;
+        if (w < 0) negativeEdges--;
+    }
+
+    /* ------------------ 重新计算 ------------------ */
+
+    // 与 getEdgeBuffer 一致地统计边权；无向图每条边只取 u <= v 的一份
+    private void rebuildWeights() {
+        selfLoopsAreEdges = !graph.isMatrixBacked();
+        weights.clear();
+        weightedEdges = 0;
+        negativeEdges = 0;
+        EdgeBuffer edges = graph.getEdgeBuffer();
+        boolean directed = graph.isDirected();
+        for (int i = 0; i < edges.size(); i++) {
+            if (directed || edges.sourceAt(i) <= edges.destinationAt(i)) {
+                addWeight(edges.weightAt(i));
+            }
+        }
+        componentsStale = true;
+        orderStale = true;
+    }
+
+    private void refreshComponents() {
+        if (!componentsStale) {
+            return;
+        }
+        int n = graph.getNumVertices();
+        components = new UnionFind(n);
+        for (int u = 0; u < n; u++) {
+            final int from = u;
+            graph.forEachNeighbor(u, (v, w) -> components.union(from, v));
+        }
+        componentsStale = false;
+    }
+
+    // Kahn 算法：能排出全部顶点即无环
+    private void refreshOrder() {
+        if (!orderStale) {
+            return;
+        }
+        int n = graph.getNumVertices();
+        int[] indegree = new int[n];
+        for (int u = 0; u < n; u++) {
+            final int from = u;
+            graph.forEachNeighbor(u, (v, w) -> {
+                if (v != from || selfLoopsAreEdges) indegree[v]++;
+            });
+        }
+        order = new int[n];
+        position = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (indegree[v] == 0) order[tail++] = v;
+        }
+        while (head < tail) {
+            int u = order[head++];
+            int[] t = { tail };
+            graph.forEachNeighbor(u, (v, w) -> {
+                if ((v != u || selfLoopsAreEdges) && --indegree[v] == 0) order[t[0]++] = v;
+            });
+            tail = t[0];
+        }
+        acyclic = tail == n;
+        for (int i = 0; i < tail; i++) {
+            position[order[i]] = i;
+        }
+        orderStale = false;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("属性索引已关闭");
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * 索引 d 叉堆
+ * Indexed d-ary min-heap backed by primitive arrays
+ *
+ * heap 保存堆序排列的顶点，pos 记录每个顶点在 heap 中的位置（不在堆中为 -1），键按顶点编号保存。
+ * insert/decreaseKey 为 O(log_d n)，extractMin 为 O(d log_d n)。d = 4 时层数减半，
+ * 且同一父节点的子节点在数组中相邻，缓存表现通常优于二叉堆。
+ */
+public final class IndexedDaryHeap implements IndexedMinHeap {
+
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private final int[] heap;
+    private final int[] pos;
+    private final double[] keys;
+    private int size;
+
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    public IndexedDaryHeap(int capacity, int arity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("容量不能为负数");
+        }
+        if (arity < 2) {
+            throw new IllegalArgumentException("堆的叉数至少为 2");
+        }
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.pos = new int[capacity];
+        this.keys = new double[capacity];
+        Arrays.fill(pos, -1);
+    }
+
+    @Override
+    public void insert(int vertex, double key) {
+        checkVertex(vertex);
+        if (pos[vertex] >= 0) {
+            throw new IllegalArgumentException("顶点已在堆中: " + vertex);
+        }
+        keys[vertex] = key;
+        heap[size] = vertex;
+        pos[vertex] = size;
+        siftUp(size++);
+    }
+
+    @Override
+    public void decreaseKey(int vertex, double key) {
+        checkVertex(vertex);
+        if (pos[vertex] < 0) {
+            throw new IllegalArgumentException("顶点不在堆中: " + vertex);
+        }
+        if (key > keys[vertex]) {
+            throw new IllegalArgumentException("新键大于当前键");
+        }
+        keys[vertex] = key;
+        siftUp(pos[vertex]);
+    }
+
+    @Override
+    public boolean contains(int vertex) {
+        return vertex >= 0 && vertex < pos.length && pos[vertex] >= 0;
+    }
+
+    @Override
+    public double keyOf(int vertex) {
+        if (!contains(vertex)) {
+            throw new IllegalArgumentException("顶点不在堆中: " + vertex);
+        }
+        return keys[vertex];
+    }
+
+    @Override
+    public int peekMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("堆为空");
+        }
+        return heap[0];
+    }
+
+    @Override
+    public int extractMin() {
+        int min = peekMin();
+        pos[min] = -1;
+        size--;
+        if (size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    // 空穴上移：沿途的父节点下移一层，最后一次性写入
+    private void siftUp(int i) {
+        int vertex = heap[i];
+        double key = keys[vertex];
+        while (i > 0) {
+            int parent = (i - 1) / arity;
+            int p = heap[parent];
+            if (!less(key, vertex, keys[p], p)) {
+                break;
+            }
+            heap[i] = p;
+            pos[p] = i;
+            i = parent;
+        }
+        heap[i] = vertex;
+        pos[vertex] = i;
+    }
+
+    private void siftDown(int i) {
+        int vertex = heap[i];
+        double key = keys[vertex];
+        while (true) {
+            int first = i * arity + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int best = first;
+            int b = heap[first];
+            for (int c = first + 1; c < last; c++) {
+                int h = heap[c];
+                if (less(keys[h], h, keys[b], b)) {
+                    best = c;
+                    b = h;
+                }
+            }
+            if (!less(keys[b], b, key, vertex)) {
+                break;
+            }
+            heap[i] = b;
+            pos[b] = i;
+            i = best;
+        }
+        heap[i] = vertex;
+        pos[vertex] = i;
+    }
+
+    // 先比较键，键相同时编号小者优先
+    private static boolean less(double keyA, int a, double keyB, int b) {
+        return keyA < keyB || (keyA == keyB && a < b);
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= pos.length) {
+            throw new IllegalArgumentException("顶点索引越界: " + vertex);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.datastruct.visualizer.model.graph;
+
+/**
+ * 以顶点编号为元素、double 为键的索引最小堆
+ * Indexed min-priority queue over int vertex IDs with decrease-key
+ *
+ * 每个顶点最多在堆中出现一次，键变小时调用 decreaseKey 原地调整，不会产生过期的重复条目。
+ * 键相同时编号较小的顶点先出堆，因此不同实现的出堆顺序完全一致。
+ * 顶点编号必须位于 [0, capacity) 内。
+ */
+public interface IndexedMinHeap {
+
+    /**
+     * 插入不在堆中的顶点
+     */
+    void insert(int vertex, double key);
+
+    /**
+     * 把堆中顶点的键减小为 key（key 不能大于当前键）
+     */
+    void decreaseKey(int vertex, double key);
+
+    /**
+     * 顶点不在堆中时插入；在堆中且 key 更小时减小键。返回堆是否发生变化
+     */
+    default boolean insertOrDecrease(int vertex, double key) {
+        if (!contains(vertex)) {
+            insert(vertex, key);
+            return true;
+        }
+        if (key < keyOf(vertex)) {
+            decreaseKey(vertex, key);
+            return true;
+        }
+        return false;
+    }
+
+    boolean contains(int vertex);
+
+    /**
+     * 堆中顶点的当前键
+     */
+    double keyOf(int vertex);
+
+    /**
+     * 键最小的顶点（不移除）
+     */
+    int peekMin();
+
+    /**
+     * 移除并返回键最小的顶点
+     */
+    int extractMin();
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 清空堆以便复用，代价与当前元素个数成正比
+     */
+    void clear();
+}
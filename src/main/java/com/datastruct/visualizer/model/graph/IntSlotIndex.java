@@ -0,0 +1,117 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.Arrays;
+
+/**
+ * 开放寻址（线性探测）的 int -> int 哈希索引，键为非负整数
+ * 用于把邻接行中的目标顶点映射到其在行数组中的槽位。删除采用后移删除法，不留墓碑。
+ */
+final class IntSlotIndex {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    IntSlotIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 查找键对应的槽位，不存在返回 -1
+     */
+    int get(int key) {
+        int i = hash(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == key) return values[i];
+            if (k == EMPTY) return -1;
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * 插入或覆盖键对应的槽位
+     */
+    void put(int key, int value) {
+        if ((size + 1) * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        int i = hash(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                size++;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * 删除键；之后的探测链元素向前移动以填补空位
+     */
+    void remove(int key) {
+        int i = hash(key) & mask;
+        while (true) {
+            int k = keys[i];
+            if (k == EMPTY) return;
+            if (k == key) break;
+            i = (i + 1) & mask;
+        }
+        size--;
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            int k = keys[j];
+            if (k == EMPTY) break;
+            int home = hash(k) & mask;
+            // 若 home 不在 (hole, j] 的循环区间内，则把 j 处元素移到空位
+            boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+            if (movable) {
+                keys[hole] = k;
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
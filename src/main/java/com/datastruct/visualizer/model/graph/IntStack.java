@@ -0,0 +1,74 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.Arrays;
+
+/**
+ * 可增长的 int 栈（原始数组，无装箱），也支持按下标读写与截断
+ */
+final class IntStack {
+
+    private int[] items;
+    private int size;
+
+    IntStack() {
+        this(16);
+    }
+
+    IntStack(int capacity) {
+        this.items = new int[Math.max(4, capacity)];
+    }
+
+    void push(int value) {
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+        }
+        items[size++] = value;
+    }
+
+    /**
+     * 依次压入另一个栈的全部元素（保持原顺序）
+     */
+    void pushAll(IntStack other) {
+        int needed = size + other.size;
+        if (needed > items.length) {
+            items = Arrays.copyOf(items, Math.max(needed, items.length * 2));
+        }
+        System.arraycopy(other.items, 0, items, size, other.size);
+        size = needed;
+    }
+
+    int pop() {
+        return items[--size];
+    }
+
+    int peek() {
+        return items[size - 1];
+    }
+
+    int get(int index) {
+        return items[index];
+    }
+
+    void set(int index, int value) {
+        items[index] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 丢弃下标 newSize 及之后的元素
+     */
+    void truncate(int newSize) {
+        size = newSize;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
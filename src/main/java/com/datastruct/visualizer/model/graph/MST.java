@@ -1,6 +1,7 @@
 package com.datastruct.visualizer.model.graph;
 
 import java.util.*;
+import java.util.function.IntFunction;
 
 
 /**
@@ -16,28 +17,27 @@ public class MST {
      */
     public static List<Edge> kruskal(Graph graph) {
         List<Edge> mstEdges = new ArrayList<>();
-        List<Edge> allEdges = graph.getAllEdges();
         
         // 如果是有向图，不能求最小生成树
         if (graph.isDirected()) {
             throw new IllegalArgumentException("有向图无法构建最小生成树");
         }
         
-        // 按权重排序所有边
-        allEdges.sort(Comparator.comparingDouble(Edge::getWeight));
+        // 按权重排序所有边（稳定排序，只对下标排序）
+        EdgeBuffer allEdges = graph.getEdgeBuffer();
+        int[] order = allEdges.sortedByWeight();
         
         // 初始化并查集
         UnionFind uf = new UnionFind(graph.getNumVertices());
         
         // Kruskal算法主循环
-        for (Edge edge : allEdges) {
-            int source = edge.getSource();
-            int dest = edge.getDestination();
+        for (int idx : order) {
+            int source = allEdges.sourceAt(idx);
+            int dest = allEdges.destinationAt(idx);
             
             // 如果两个顶点不在同一连通分量中，添加这条边
-            if (!uf.connected(source, dest)) {
-                uf.union(source, dest);
-                mstEdges.add(edge);
+            if (uf.union(source, dest)) {
+                mstEdges.add(allEdges.edgeAt(idx));
                 
                 // 如果已经有n-1条边，MST完成
                 if (mstEdges.size() == graph.getNumVertices() - 1) {
@@ -98,12 +98,19 @@ public class MST {
     }
 
     /**
-     * Dijkstra 算法（用于非负权图）
+     * Dijkstra 算法（用于非负权图），默认使用索引 4 叉堆
      * @param graph 图（支持有向图）
      * @param source 源点
     * @return ShortestPathResult，包含距离数组与前驱数组
      */
     public static ShortestPathResult dijkstra(Graph graph, int source) {
+        return dijkstra(graph, source, IndexedDaryHeap::new);
+    }
+
+    /**
+     * Dijkstra 算法，使用调用方指定的索引堆（参数为容量，即顶点数），便于比较不同堆的性能
+     */
+    public static ShortestPathResult dijkstra(Graph graph, int source, IntFunction<? extends IndexedMinHeap> heapFactory) {
         int n = graph.getNumVertices();
         double[] dist = new double[n];
         int[] prev = new int[n];
@@ -116,22 +123,23 @@ public class MST {
 
         dist[source] = 0.0;
 
-        PriorityQueue<Integer> pq = new PriorityQueue<>(Comparator.comparingDouble(v -> dist[v]));
-        pq.offer(source);
+        // 每个顶点在堆中至多一份，距离变小时原地减小键
+        IndexedMinHeap heap = heapFactory.apply(n);
+        boolean[] settled = new boolean[n];
+        heap.insert(source, 0.0);
 
-        while (!pq.isEmpty()) {
-            int u = pq.poll();
-            // 如果弹出的节点的当前距离已经不是最新的，则跳过
-            //（Comparator 会基于 dist 数组排序，这里用简单的跳过策略）
-            for (int v : graph.getNeighbors(u)) {
-                double weight = graph.getWeight(u, v);
+        while (!heap.isEmpty()) {
+            int u = heap.extractMin();
+            settled[u] = true;
+            graph.forEachNeighbor(u, (v, weight) -> {
+                if (settled[v]) return;
                 double alt = dist[u] + weight;
                 if (alt < dist[v]) {
                     dist[v] = alt;
                     prev[v] = u;
-                    pq.offer(v);
+                    heap.insertOrDecrease(v, alt);
                 }
-            }
+            });
         }
 
         return new ShortestPathResult(dist, prev, false);
@@ -209,9 +217,18 @@ public class MST {
     }
 
     /**
-     * 带步骤的 Dijkstra 实现
+     * 带步骤的 Dijkstra 实现。target 有效时在目标确定后立即停止，
+     * 此时未确定顶点的距离只是上界；target 为 -1 时计算到所有顶点的最短距离。
      */
     public static DijkstraResultWithSteps dijkstraWithSteps(Graph graph, int source, int target) {
+        return dijkstraWithSteps(graph, source, target, IndexedDaryHeap::new);
+    }
+
+    /**
+     * 带步骤的 Dijkstra 实现，使用调用方指定的索引堆
+     */
+    public static DijkstraResultWithSteps dijkstraWithSteps(Graph graph, int source, int target,
+                                                            IntFunction<? extends IndexedMinHeap> heapFactory) {
         int n = graph.getNumVertices();
         double[] dist = new double[n];
         int[] prev = new int[n];
@@ -228,38 +245,46 @@ public class MST {
 
         java.util.List<DijkstraSnapshot> snapshots = new java.util.ArrayList<>();
         java.util.Set<Integer> settled = new java.util.HashSet<>();
+        boolean[] isSettled = new boolean[n];
 
-        // 自定义优先队列：存顶点，Comparator 基于当前 dist
-        PriorityQueue<Integer> pq = new PriorityQueue<>(Comparator.comparingDouble(v -> dist[v]));
-        pq.offer(source);
+        // 索引堆：每个顶点至多一份，距离变小时原地减小键
+        IndexedMinHeap heap = heapFactory.apply(n);
+        heap.insert(source, 0.0);
 
-        double bestTargetDist = Double.POSITIVE_INFINITY; // 用于记录目前找到的到目标点的最好距离（若有）
+        // 用于记录目前找到的到目标点的最好距离（若有）；使用单元素数组以便在访问器中更新
+        double[] bestTargetDist = { Double.POSITIVE_INFINITY };
 
-        while (!pq.isEmpty()) {
-            int u = pq.poll();
-            if (settled.contains(u)) continue; // 跳过过期条目
+        while (!heap.isEmpty()) {
+            int u = heap.extractMin();
+            isSettled[u] = true;
 
             // 记录弹出（确定最短距离）
             steps.add(new DijkstraStep(DijkstraStep.StepType.EXTRACT_MIN, u));
             steps.add(new DijkstraStep(DijkstraStep.StepType.FINALIZE_VERTEX, u));
 
+            // 目标已确定，其余顶点不会再影响到它的最短路径，提前结束
+            if (u == target) {
+                settled.add(u);
+                snapshots.add(new DijkstraSnapshot(snapshots.size(), java.util.Collections.unmodifiableSet(new java.util.HashSet<>(settled)), dist, prev));
+                break;
+            }
+
             // 先进行所有邻边松弛
-            for (int v : graph.getNeighbors(u)) {
-                double w = graph.getWeight(u, v);
+            graph.forEachNeighbor(u, (v, w) -> {
                 Edge e = new Edge(u, v, w);
                 // 记录考虑这条边
                 steps.add(new DijkstraStep(DijkstraStep.StepType.CONSIDER_EDGE, e));
 
                 double alt = dist[u] + w;
-                if (alt < dist[v]) {
+                if (!isSettled[v] && alt < dist[v]) {
                     dist[v] = alt;
                     prev[v] = u;
-                    pq.offer(v);
+                    heap.insertOrDecrease(v, alt);
                     // 记录松弛操作
                     steps.add(new DijkstraStep(DijkstraStep.StepType.RELAX_EDGE, e, alt));
 
                     // 如果这次松弛导致目标的距离被更新（或首次可达），则记录一条 PATH_TO_TARGET_FOUND 步骤
-                    if (target >= 0 && target < n && !Double.isInfinite(dist[target]) && dist[target] < bestTargetDist) {
+                    if (target >= 0 && target < n && !Double.isInfinite(dist[target]) && dist[target] < bestTargetDist[0]) {
                         // 重建从 source 到 target 的路径（基于当前 prev）
                         LinkedList<Integer> path = new LinkedList<>();
                         int cur = target;
@@ -279,10 +304,10 @@ public class MST {
                         }
 
                         steps.add(new DijkstraStep(DijkstraStep.StepType.PATH_TO_TARGET_FOUND, pathEdges));
-                        bestTargetDist = dist[target];
+                        bestTargetDist[0] = dist[target];
                     }
                 }
-            }
+            });
 
             // 邻边松弛完成后，再把 u 加入已确定集合并记录快照
             settled.add(u);
@@ -312,15 +337,16 @@ public class MST {
         }
 
         dist[source] = 0.0;
-        List<Edge> edges = graph.getAllEdges();
+        EdgeBuffer edges = graph.getEdgeBuffer();
+        int m = edges.size();
 
         // 松弛 n-1 次
         for (int i = 0; i < n - 1; i++) {
             boolean updated = false;
-            for (Edge e : edges) {
-                int u = e.getSource();
-                int v = e.getDestination();
-                double w = e.getWeight();
+            for (int k = 0; k < m; k++) {
+                int u = edges.sourceAt(k);
+                int v = edges.destinationAt(k);
+                double w = edges.weightAt(k);
                 if (!Double.isInfinite(dist[u]) && dist[u] + w < dist[v]) {
                     dist[v] = dist[u] + w;
                     prev[v] = u;
@@ -332,10 +358,10 @@ public class MST {
 
         // 检测负权回路
         boolean hasNegCycle = false;
-        for (Edge e : edges) {
-            int u = e.getSource();
-            int v = e.getDestination();
-            double w = e.getWeight();
+        for (int k = 0; k < m; k++) {
+            int u = edges.sourceAt(k);
+            int v = edges.destinationAt(k);
+            double w = edges.weightAt(k);
             if (!Double.isInfinite(dist[u]) && dist[u] + w < dist[v]) {
                 hasNegCycle = true;
                 break;
@@ -345,22 +371,84 @@ public class MST {
         return new ShortestPathResult(dist, prev, hasNegCycle);
     }
 
+    /**
+     * SPFA（基于队列的 Bellman-Ford）：只有距离变小的顶点才会重新入队松弛其出边，
+     * 通常远少于 Bellman-Ford 的 V-1 轮全边松弛，最坏情况仍为 O(VE)。
+     * 记录每个顶点当前最短路径的边数，达到 V 条说明路径上有重复顶点，即存在负权回路。
+     * 边集与 bellmanFord 相同（邻接矩阵不含对角线）。
+     */
+    public static ShortestPathResult spfa(Graph graph, int source) {
+        int n = graph.getNumVertices();
+        double[] dist = new double[n];
+        int[] prev = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("源点索引越界");
+        }
+
+        CompactAdjacency adj = CompactAdjacency.of(graph);
+        // 每个顶点至多在队列中出现一次，容量为 n 的循环队列即可
+        int[] queue = new int[n];
+        boolean[] inQueue = new boolean[n];
+        int[] pathEdges = new int[n];
+        int head = 0;
+        int size = 0;
+
+        dist[source] = 0.0;
+        queue[0] = source;
+        inQueue[source] = true;
+        size = 1;
+
+        while (size > 0) {
+            int u = queue[head];
+            head = head + 1 == n ? 0 : head + 1;
+            size--;
+            inQueue[u] = false;
+
+            double du = dist[u];
+            for (int k = adj.offsets[u]; k < adj.offsets[u + 1]; k++) {
+                int v = adj.targets[k];
+                double alt = du + adj.weights[k];
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    prev[v] = u;
+                    pathEdges[v] = pathEdges[u] + 1;
+                    if (pathEdges[v] >= n) {
+                        return new ShortestPathResult(dist, prev, true);
+                    }
+                    if (!inQueue[v]) {
+                        int tail = head + size;
+                        queue[tail >= n ? tail - n : tail] = v;
+                        inQueue[v] = true;
+                        size++;
+                    }
+                }
+            }
+        }
+
+        return new ShortestPathResult(dist, prev, false);
+    }
+
     /**
      * 便捷 API：使用 Dijkstra 得到 source -> target 的最短路径（若不可达返回空列表）
      */
     public static List<Integer> shortestPathDijkstra(Graph graph, int source, int target) {
-        ShortestPathResult res = dijkstra(graph, source);
-        return res.getPath(target);
+        int n = graph.getNumVertices();
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("源点索引越界");
+        }
+        if (target < 0 || target >= n) return Collections.emptyList();
+        // 只需要一个目标：目标确定后立即停止
+        return new ArrayList<>(PointToPointSearch.dijkstra(graph, source, target).getPath());
     }
 
     /**
      * 便捷 API：使用 Dijkstra 得到 source -> target 的最短距离（不可达返回 Double.POSITIVE_INFINITY）
      */
     public static double shortestDistanceDijkstra(Graph graph, int source, int target) {
-        ShortestPathResult res = dijkstra(graph, source);
-        double[] d = res.getDistances();
-        if (target < 0 || target >= d.length) throw new IllegalArgumentException("目标顶点索引越界");
-        return d[target];
+        return PointToPointSearch.dijkstra(graph, source, target).getDistance();
     }
 
     /**
@@ -384,113 +472,62 @@ public class MST {
     }
     
     /**
-     * 求最小生成树（基于优先队列的实现）
+     * 求最小生成树（基于索引堆的实现），只覆盖起始顶点所在的连通分量
      * @param graph 图
      * @param startVertex 起始顶点
      * @return 最小生成树的边集合
      */
     public static List<Edge> prim(Graph graph, int startVertex) {
+        return prim(graph, startVertex, IndexedDaryHeap::new);
+    }
+
+    /**
+     * Prim 算法，使用调用方指定的索引堆（参数为容量，即顶点数）
+     */
+    public static List<Edge> prim(Graph graph, int startVertex, IntFunction<? extends IndexedMinHeap> heapFactory) {
         List<Edge> mstEdges = new ArrayList<>();
-        Set<Integer> visited = new HashSet<>();
         
         // 如果是有向图，不能求最小生成树
         if (graph.isDirected()) {
             throw new IllegalArgumentException("有向图无法构建最小生成树");
         }
         
-        // 优先队列存储边，按权重排序
-        PriorityQueue<Edge> pq = new PriorityQueue<>(Comparator.comparingDouble(Edge::getWeight));
-        
-        // 从起始顶点开始
-        visited.add(startVertex);
+        int n = graph.getNumVertices();
+        if (startVertex < 0 || startVertex >= n) {
+            throw new IllegalArgumentException("起始顶点索引越界");
+        }
         
-        // 添加从起始顶点出发的所有边
-        addEdgesFromVertex(graph, startVertex, visited, pq);
+        // 堆中保存尚未加入树的顶点，键为连接到树的最小边权，parent 为该边在树内的端点
+        IndexedMinHeap heap = heapFactory.apply(n);
+        boolean[] inTree = new boolean[n];
+        int[] parent = new int[n];
+        heap.insert(startVertex, 0.0);
+        parent[startVertex] = -1;
         
-    // 主循环：从优先队列中选择最小边并扩展
-        while (!pq.isEmpty() && mstEdges.size() < graph.getNumVertices() - 1) {
-            Edge edge = pq.poll();
-            int dest = edge.getDestination();
-            
-            // 如果目标顶点已经访问过，跳过这条边
-            if (visited.contains(dest)) {
-                continue;
+        // 主循环：取出离树最近的顶点，再用它的邻边更新其余顶点的键
+        while (!heap.isEmpty()) {
+            double weight = heap.keyOf(heap.peekMin());
+            int u = heap.extractMin();
+            inTree[u] = true;
+            if (parent[u] >= 0) {
+                mstEdges.add(new Edge(parent[u], u, weight));
             }
-            
-            // 添加这条边到MST
-            mstEdges.add(edge);
-            visited.add(dest);
-            
-            // 添加从新顶点出发的所有边
-            addEdgesFromVertex(graph, dest, visited, pq);
+            graph.forEachNeighbor(u, (v, w) -> {
+                if (!inTree[v] && (!heap.contains(v) || w < heap.keyOf(v))) {
+                    parent[v] = u;
+                    heap.insertOrDecrease(v, w);
+                }
+            });
         }
         
         return mstEdges;
     }
     
-    /**
-     * 添加从指定顶点出发的所有边到优先队列
-     */
-    private static void addEdgesFromVertex(Graph graph, int vertex, Set<Integer> visited, PriorityQueue<Edge> pq) {
-        for (int neighbor : graph.getNeighbors(vertex)) {
-            if (!visited.contains(neighbor)) {
-                double weight = graph.getWeight(vertex, neighbor);
-                pq.offer(new Edge(vertex, neighbor, weight));
-            }
-        }
-    }
-    
     /**
      * 计算最小生成树的总权重
      */
     public static double calculateMSTWeight(List<Edge> mstEdges) {
         return mstEdges.stream().mapToDouble(Edge::getWeight).sum();
     }
-    
-    /**
-     * 并查集数据结构（用于Kruskal算法）
-     */
-    private static class UnionFind {
-        private int[] parent;
-        private int[] rank;
-        
-        public UnionFind(int n) {
-            parent = new int[n];
-            rank = new int[n];
-            for (int i = 0; i < n; i++) {
-                parent[i] = i;
-                rank[i] = 0;
-            }
-        }
-        
-        public int find(int x) {
-            if (parent[x] != x) {
-                parent[x] = find(parent[x]); // 路径压缩
-            }
-            return parent[x];
-        }
-        
-        public void union(int x, int y) {
-            int rootX = find(x);
-            int rootY = find(y);
-            
-            if (rootX != rootY) {
-                // 按秩合并
-                if (rank[rootX] < rank[rootY]) {
-                    parent[rootX] = rootY;
-                } else if (rank[rootX] > rank[rootY]) {
-                    parent[rootY] = rootX;
-                } else {
-                    parent[rootY] = rootX;
-                    rank[rootX]++;
-                }
-            }
-        }
-        
-        public boolean connected(int x, int y) {
-            return find(x) == find(y);
-        }
-    }
-    
 }
 
@@ -0,0 +1,366 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * 基于内存映射文件的只读图（数据不占用堆内存）
+ * Read-only graph backed by memory-mapped file segments
+ *
+ * 文件布局（大端序，与 CSRGraph 相同的压缩稀疏行结构）：
+ * <pre>
+ * [0, 64)           文件头：magic, version, flags, numVertices, numEdges, 各区段起始位置
+ * offsets           (numVertices + 1) 个 long，顶点 v 的出边位于 [offsets[v], offsets[v + 1])
+ * targets           numEdges 个 int，每行按目标顶点升序
+ * (填充到 8 字节对齐)
+ * weights           numEdges 个 double
+ * </pre>
+ * 打开时只读取文件头并建立映射，启动代价与图的大小无关；边偏移使用 long，
+ * 文件按 1GB 分段映射，因此边数可以超过 Integer.MAX_VALUE。
+ */
+public class MappedGraph extends Graph {
+
+    private static final int MAGIC = 0x44535647; // "DSVG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final MappedByteBuffer[] segments;
+    private final long numEdges;
+    private final long offsetsPos;
+    private final long targetsPos;
+    private final long weightsPos;
+
+    private MappedGraph(int numVertices, boolean isDirected, long numEdges, MappedByteBuffer[] segments,
+                        long offsetsPos, long targetsPos, long weightsPos) {
+        super(numVertices, isDirected);
+        this.numEdges = numEdges;
+        this.segments = segments;
+        this.offsetsPos = offsetsPos;
+        this.targetsPos = targetsPos;
+        this.weightsPos = weightsPos;
+    }
+
+    /**
+     * 以只读方式打开图文件
+     */
+    public static MappedGraph open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("文件格式不正确：文件头不完整");
+            }
+            int count = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+            MappedByteBuffer[] segments = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, size - start));
+            }
+
+            ByteBuffer header = segments[0];
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("文件格式不正确：不是图数据文件");
+            }
+            boolean directed = (header.getInt(8) & 1) != 0;
+            int numVertices = header.getInt(12);
+            long numEdges = header.getLong(16);
+            long offsetsPos = header.getLong(24);
+            long targetsPos = header.getLong(32);
+            long weightsPos = header.getLong(40);
+            if (weightsPos + numEdges * Double.BYTES > size) {
+                throw new IOException("文件格式不正确：数据区不完整");
+            }
+            return new MappedGraph(numVertices, directed, numEdges, segments, offsetsPos, targetsPos, weightsPos);
+        }
+    }
+
+    /**
+     * 把任意图写成可被 open() 映射的文件。每行在写出前按目标顶点排序。
+     * 边取自 getEdgeBuffer()，与 getAllEdges() 一致（邻接矩阵的对角线不算作边）。
+     */
+    public static void write(Graph graph, Path path) throws IOException {
+        int n = graph.getNumVertices();
+        EdgeBuffer buffer = graph.getEdgeBuffer();
+        int m = buffer.size();
+        // 按起点分桶：顶点 v 的边下标位于 order[start[v], start[v + 1])
+        int[] start = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            start[buffer.sourceAt(i) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            start[v + 1] += start[v];
+        }
+        int[] order = new int[m];
+        int[] fill = Arrays.copyOf(start, n);
+        for (int i = 0; i < m; i++) {
+            order[fill[buffer.sourceAt(i)]++] = i;
+        }
+        long edges = m;
+
+        long offsetsPos = HEADER_SIZE;
+        long targetsPos = offsetsPos + (long) (n + 1) * Long.BYTES;
+        long weightsPos = align8(targetsPos + edges * Integer.BYTES);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChunkWriter out = new ChunkWriter(channel);
+
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putInt(graph.isDirected() ? 1 : 0);
+            out.putInt(n);
+            out.putLong(edges);
+            out.putLong(offsetsPos);
+            out.putLong(targetsPos);
+            out.putLong(weightsPos);
+            out.padTo(HEADER_SIZE);
+
+            for (int v = 0; v <= n; v++) {
+                out.putLong(start[v]);
+            }
+
+            RowBuffer row = new RowBuffer();
+            for (int v = 0; v < n; v++) {
+                row.load(buffer, order, start[v], start[v + 1]);
+                for (int i = 0; i < row.size; i++) out.putInt(row.targets[i]);
+            }
+            out.padTo(weightsPos);
+            for (int v = 0; v < n; v++) {
+                row.load(buffer, order, start[v], start[v + 1]);
+                for (int i = 0; i < row.size; i++) out.putDouble(row.weights[i]);
+            }
+            out.flush();
+        }
+    }
+
+    private static long align8(long pos) {
+        return (pos + 7) & ~7L;
+    }
+
+    private ByteBuffer segment(long pos) {
+        return segments[(int) (pos >>> SEGMENT_SHIFT)];
+    }
+
+    private long offset(int vertex) {
+        long pos = offsetsPos + (long) vertex * Long.BYTES;
+        return segment(pos).getLong((int) (pos & SEGMENT_MASK));
+    }
+
+    private int target(long edge) {
+        long pos = targetsPos + edge * Integer.BYTES;
+        return segment(pos).getInt((int) (pos & SEGMENT_MASK));
+    }
+
+    private double weight(long edge) {
+        long pos = weightsPos + edge * Double.BYTES;
+        return segment(pos).getDouble((int) (pos & SEGMENT_MASK));
+    }
+
+    // 在有序行内二分查找，返回边的全局下标，未找到返回 -1
+    private long indexOf(int source, int destination) {
+        long lo = offset(source);
+        long hi = offset(source + 1) - 1;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            int t = target(mid);
+            if (t < destination) {
+                lo = mid + 1;
+            } else if (t > destination) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void addEdge(int source, int destination, double weight) {
+        throw new UnsupportedOperationException("内存映射图是只读的");
+    }
+
+    @Override
+    public void removeEdge(int source, int destination) {
+        throw new UnsupportedOperationException("内存映射图是只读的");
+    }
+
+    @Override
+    public boolean hasEdge(int source, int destination) {
+        if (!isValidVertex(source) || !isValidVertex(destination)) {
+            return false;
+        }
+        return indexOf(source, destination) >= 0;
+    }
+
+    @Override
+    public double getWeight(int source, int destination) {
+        if (!isValidVertex(source) || !isValidVertex(destination)) {
+            return Double.MAX_VALUE;
+        }
+        long idx = indexOf(source, destination);
+        return idx >= 0 ? weight(idx) : Double.MAX_VALUE;
+    }
+
+    @Override
+    public List<Integer> getNeighbors(int vertex) {
+        List<Integer> neighbors = new ArrayList<>();
+        forEachNeighbor(vertex, (neighbor, weight) -> neighbors.add(neighbor));
+        return neighbors;
+    }
+
+    @Override
+    public void forEachNeighbor(int vertex, NeighborVisitor visitor) {
+        if (!isValidVertex(vertex)) {
+            return;
+        }
+        long end = offset(vertex + 1);
+        for (long e = offset(vertex); e < end; e++) {
+            visitor.visit(target(e), weight(e));
+        }
+    }
+
+    /**
+     * 物化所有边。对超大图会耗尽堆内存，应优先使用 forEachNeighbor。
+     */
+    @Override
+    public List<Edge> getAllEdges() {
+        List<Edge> edges = new ArrayList<>(Math.toIntExact(numEdges));
+        for (int u = 0; u < numVertices; u++) {
+            final int source = u;
+            forEachNeighbor(u, (v, w) -> edges.add(new Edge(source, v, w)));
+        }
+        return edges;
+    }
+
+    @Override
+    public int getNumEdges() {
+        return Math.toIntExact(numEdges);
+    }
+
+    /**
+     * 边数（long，可超过 int 范围）
+     */
+    public long getEdgeCount() {
+        return numEdges;
+    }
+
+    public long getDegree(int vertex) {
+        if (!isValidVertex(vertex)) {
+            return 0;
+        }
+        return offset(vertex + 1) - offset(vertex);
+    }
+
+    @Override
+    public void addVertex(String label) {
+        throw new UnsupportedOperationException("内存映射图是只读的");
+    }
+
+    @Override
+    public void removeVertex(int vertex) {
+        throw new UnsupportedOperationException("内存映射图是只读的");
+    }
+
+    /**
+     * 写文件时从边缓冲区收集单行出边并按目标顶点排序
+     */
+    private static class RowBuffer {
+        int[] targets = new int[16];
+        double[] weights = new double[16];
+        long[] keys = new long[16];
+        int[] sortedTargets = new int[16];
+        double[] sortedWeights = new double[16];
+        int size;
+
+        void load(EdgeBuffer edges, int[] order, int begin, int end) {
+            size = end - begin;
+            if (size > targets.length) {
+                int capacity = Math.max(size, targets.length * 2);
+                targets = new int[capacity];
+                weights = new double[capacity];
+                keys = new long[capacity];
+                sortedTargets = new int[capacity];
+                sortedWeights = new double[capacity];
+            }
+            for (int i = 0; i < size; i++) {
+                int e = order[begin + i];
+                targets[i] = edges.destinationAt(e);
+                weights[i] = edges.weightAt(e);
+            }
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) targets[i] << 32) | i;
+            }
+            Arrays.sort(keys, 0, size);
+            for (int i = 0; i < size; i++) {
+                int from = (int) keys[i];
+                sortedTargets[i] = targets[from];
+                sortedWeights[i] = weights[from];
+            }
+            // 交换缓冲区，排序结果成为当前行
+            int[] t = targets;
+            targets = sortedTargets;
+            sortedTargets = t;
+            double[] w = weights;
+            weights = sortedWeights;
+            sortedWeights = w;
+        }
+    }
+
+    /**
+     * 以固定大小的缓冲区顺序写出文件
+     */
+    private static class ChunkWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        private long position;
+
+        ChunkWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+            position += Integer.BYTES;
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+            position += Long.BYTES;
+        }
+
+        void putDouble(double value) throws IOException {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+            position += Double.BYTES;
+        }
+
+        void padTo(long target) throws IOException {
+            while (position < target) {
+                ensure(1);
+                buffer.put((byte) 0);
+                position++;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+
+/**
+ * 离线动态连通性
+ * Offline dynamic connectivity over an edit history (segment tree over time)
+ *
+ * 按时间顺序记录一段编辑历史（加/删顶点、加/删边）与穿插其间的连通性查询，最后由 solve() 一次性回答。
+ * 每条边在若干个连续的时刻存在，把这个时间区间挂到线段树（叶子为有查询的时刻）的 O(log Q) 个结点上；
+ * 深度优先遍历线段树时，进入结点就把它的边合并进可撤销并查集，离开时撤销，到达叶子时回答该时刻的查询。
+ * 总代价 O((E + Q) log Q log V)，其中 E 为边区间数、Q 为查询数。
+ *
+ * 顶点编号与 Graph 一致：删除顶点时与之相连的边一并删除，编号更大的顶点减一，查询使用查询时刻的编号。
+ * 连通性不考虑方向（有向图得到的是弱连通性，u -> v 与 v -> u 是两条独立的边）；
+ * 已存在的边再次加入、不存在的边被删除都不改变状态。
+ */
+public final class OfflineConnectivity {
+
+    // 当前编号 -> 内部编号（内部编号只增不减，删除顶点后也不复用）
+    private final List<Integer> ids = new ArrayList<>();
+    private final boolean directed;
+    private int nextId;
+    // 当前存在的边：内部编号键 -> 开始时刻
+    private final Map<Long, Integer> active = new HashMap<>();
+    // 已结束的边区间 [from, to)，to 为删除它的那一时刻
+    private final IntStack edgeU = new IntStack();
+    private final IntStack edgeV = new IntStack();
+    private final IntStack edgeFrom = new IntStack();
+    private final IntStack edgeTo = new IntStack();
+    private final IntStack queryTime = new IntStack();
+    private final IntStack queryU = new IntStack();
+    private final IntStack queryV = new IntStack();
+    private int time;
+
+    public OfflineConnectivity(int numVertices) {
+        this(numVertices, false);
+    }
+
+    public OfflineConnectivity(int numVertices, boolean directed) {
+        if (numVertices < 0) {
+            throw new IllegalArgumentException("顶点数不能为负数");
+        }
+        this.directed = directed;
+        for (int i = 0; i < numVertices; i++) {
+            ids.add(nextId++);
+        }
+    }
+
+    /**
+     * 以图的当前内容作为初始状态（时刻 0）
+     */
+    public static OfflineConnectivity fromGraph(Graph graph) {
+        OfflineConnectivity history = new OfflineConnectivity(graph.getNumVertices(), graph.isDirected());
+        EdgeBuffer edges = graph.getEdgeBuffer();
+        for (int i = 0; i < edges.size(); i++) {
+            history.open(edges.sourceAt(i), edges.destinationAt(i));
+        }
+        return history;
+    }
+
+    public int getNumVertices() {
+        return ids.size();
+    }
+
+    /**
+     * 已记录的编辑数；第 k 次编辑之后的状态即时刻 k
+     */
+    public int getEditCount() {
+        return time;
+    }
+
+    public int getQueryCount() {
+        return queryTime.size();
+    }
+
+    /* ------------------ 编辑 ------------------ */
+
+    /**
+     * 在末尾加入一个顶点，返回它的编号
+     */
+    public int addVertex() {
+        time++;
+        ids.add(nextId++);
+        return ids.size() - 1;
+    }
+
+    /**
+     * 删除顶点及与之相连的所有边（需要扫描当前所有边，O(E)）
+     */
+    public void removeVertex(int vertex) {
+        checkVertex(vertex);
+        time++;
+        int id = ids.remove(vertex);
+        for (Iterator<Map.Entry<Long, Integer>> it = active.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Integer> e = it.next();
+            int a = (int) (e.getKey() >>> 32);
+            int b = (int) (long) e.getKey();
+            if (a == id || b == id) {
+                close(a, b, e.getValue());
+                it.remove();
+            }
+        }
+    }
+
+    public void addEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        time++;
+        open(u, v);
+    }
+
+    public void removeEdge(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        time++;
+        int a = ids.get(u);
+        int b = ids.get(v);
+        Integer from = active.remove(key(a, b));
+        if (from != null) {
+            close(a, b, from);
+        }
+    }
+
+    /**
+     * 记录一个查询：当前时刻（已记录的所有编辑之后）u 与 v 是否连通。返回查询的序号，即 solve() 结果中的下标
+     */
+    public int query(int u, int v) {
+        checkVertex(u);
+        checkVertex(v);
+        queryTime.push(time);
+        queryU.push(ids.get(u));
+        queryV.push(ids.get(v));
+        return queryTime.size() - 1;
+    }
+
+    private void open(int u, int v) {
+        int a = ids.get(u);
+        int b = ids.get(v);
+        if (a != b) {
+            active.putIfAbsent(key(a, b), time);
+        }
+    }
+
+    private void close(int a, int b, int from) {
+        edgeU.push(a);
+        edgeV.push(b);
+        edgeFrom.push(from);
+        edgeTo.push(time);
+    }
+
+    /* ------------------ 求解 ------------------ */
+
+    /**
+     * 按记录顺序回答所有查询。不改变已记录的历史，可以继续记录后再次调用
+     */
+    public boolean[] solve() {
+        int q = queryTime.size();
+        boolean[] answers = new boolean[q];
+        if (q == 0) {
+            return answers;
+        }
+
+        // 查询按时刻稳定排序（记录顺序本身就按时刻递增），叶子为互不相同的查询时刻
+        int[] times = new int[q];
+        int leaves = 0;
+        for (int i = 0; i < q; i++) {
+            int t = queryTime.get(i);
+            if (leaves == 0 || times[leaves - 1] != t) {
+                times[leaves++] = t;
+            }
+        }
+
+        // 线段树结点上的边以链表保存：head[node] -> 边下标 -> next
+        int[] head = new int[4 * leaves];
+        Arrays.fill(head, -1);
+        IntStack next = new IntStack();
+        IntStack nodeU = new IntStack();
+        IntStack nodeV = new IntStack();
+        int closed = edgeU.size();
+        for (int i = 0; i < closed; i++) {
+            insert(times, leaves, edgeFrom.get(i), edgeTo.get(i), edgeU.get(i), edgeV.get(i), head, next, nodeU, nodeV);
+        }
+        for (Map.Entry<Long, Integer> e : active.entrySet()) {
+            int a = (int) (e.getKey() >>> 32);
+            int b = (int) (long) e.getKey();
+            insert(times, leaves, e.getValue(), time + 1, a, b, head, next, nodeU, nodeV);
+        }
+
+        UnionFind uf = UnionFind.withRollback(nextId);
+        int[] cursor = { 0 };
+        visit(1, 0, leaves, times, head, next, nodeU, nodeV, uf, cursor, answers);
+        return answers;
+    }
+
+    // 把存在于时刻 [from, to) 的边挂到覆盖对应叶子区间的结点上
+    private static void insert(int[] times, int leaves, int from, int to, int u, int v,
+                               int[] head, IntStack next, IntStack nodeU, IntStack nodeV) {
+        int lo = lowerBound(times, leaves, from);
+        int hi = lowerBound(times, leaves, to);
+        if (lo < hi) {
+            attach(1, 0, leaves, lo, hi, u, v, head, next, nodeU, nodeV);
+        }
+    }
+
+    private static void attach(int node, int l, int r, int lo, int hi, int u, int v,
+                               int[] head, IntStack next, IntStack nodeU, IntStack nodeV) {
+        if (lo <= l && r <= hi) {
+            nodeU.push(u);
+            nodeV.push(v);
+            next.push(head[node]);
+            head[node] = next.size() - 1;
+            return;
+        }
+        int mid = (l + r) >>> 1;
+        if (lo < mid) attach(2 * node, l, mid, lo, hi, u, v, head, next, nodeU, nodeV);
+        if (hi > mid) attach(2 * node + 1, mid, r, lo, hi, u, v, head, next, nodeU, nodeV);
+    }
+
+    private void visit(int node, int l, int r, int[] times, int[] head, IntStack next,
+                       IntStack nodeU, IntStack nodeV, UnionFind uf, int[] cursor, boolean[] answers) {
+        int checkpoint = uf.checkpoint();
+        for (int e = head[node]; e != -1; e = next.get(e)) {
+            uf.union(nodeU.get(e), nodeV.get(e));
+        }
+        if (r - l == 1) {
+            // 叶子：回答该时刻的所有查询（查询按时刻递增，顺序遍历叶子即可）
+            int q = cursor[0];
+            while (q < queryTime.size() && queryTime.get(q) == times[l]) {
+                answers[q] = uf.connected(queryU.get(q), queryV.get(q));
+                q++;
+            }
+            cursor[0] = q;
+        } else {
+            int mid = (l + r) >>> 1;
+            visit(2 * node, l, mid, times, head, next, nodeU, nodeV, uf, cursor, answers);
+            visit(2 * node + 1, mid, r, times, head, next, nodeU, nodeV, uf, cursor, answers);
+        }
+        uf.rollback(checkpoint);
+    }
+
+    private static int lowerBound(int[] times, int length, int value) {
+        int lo = 0;
+        int hi = length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] < value) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    // 无向图的键与端点顺序无关
+    private long key(int a, int b) {
+        if (!directed && a > b) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        return ((long) a << 32) | b;
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= ids.size()) {
+            throw new IllegalArgumentException("顶点索引越界: " + vertex);
+        }
+    }
+}
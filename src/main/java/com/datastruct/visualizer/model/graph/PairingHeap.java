@@ -0,0 +1,196 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * 索引配对堆
+ * Indexed pairing heap backed by primitive arrays
+ *
+ * 节点就是顶点编号，树结构用 child（最左子节点）、sibling（右兄弟）和 prev
+ * （最左子节点指向父节点，其余指向左兄弟）三个数组表示，不分配节点对象。
+ * insert/decreaseKey 为 O(1)（decreaseKey 摊还为 o(log n)），extractMin 摊还 O(log n)，
+ * 适合松弛次数远多于出堆次数的稠密图。
+ */
+public final class PairingHeap implements IndexedMinHeap {
+
+    private static final int NONE = -1;
+
+    private final int[] child;
+    private final int[] sibling;
+    private final int[] prev;
+    private final double[] keys;
+    private final boolean[] inHeap;
+    // extractMin 两趟合并时暂存子树的根
+    private final int[] scratch;
+    private int root = NONE;
+    private int size;
+
+    public PairingHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("容量不能为负数");
+        }
+        this.child = new int[capacity];
+        this.sibling = new int[capacity];
+        this.prev = new int[capacity];
+        this.keys = new double[capacity];
+        this.inHeap = new boolean[capacity];
+        this.scratch = new int[capacity];
+        Arrays.fill(child, NONE);
+        Arrays.fill(sibling, NONE);
+        Arrays.fill(prev, NONE);
+    }
+
+    @Override
+    public void insert(int vertex, double key) {
+        checkVertex(vertex);
+        if (inHeap[vertex]) {
+            throw new IllegalArgumentException("顶点已在堆中: " + vertex);
+        }
+        keys[vertex] = key;
+        inHeap[vertex] = true;
+        root = meld(root, vertex);
+        size++;
+    }
+
+    @Override
+    public void decreaseKey(int vertex, double key) {
+        checkVertex(vertex);
+        if (!inHeap[vertex]) {
+            throw new IllegalArgumentException("顶点不在堆中: " + vertex);
+        }
+        if (key > keys[vertex]) {
+            throw new IllegalArgumentException("新键大于当前键");
+        }
+        keys[vertex] = key;
+        if (vertex == root) {
+            return;
+        }
+        // 连同子树从原位置切下，再与根合并
+        int p = prev[vertex];
+        if (child[p] == vertex) {
+            child[p] = sibling[vertex];
+        } else {
+            sibling[p] = sibling[vertex];
+        }
+        if (sibling[vertex] != NONE) {
+            prev[sibling[vertex]] = p;
+        }
+        sibling[vertex] = NONE;
+        prev[vertex] = NONE;
+        root = meld(root, vertex);
+    }
+
+    @Override
+    public boolean contains(int vertex) {
+        return vertex >= 0 && vertex < inHeap.length && inHeap[vertex];
+    }
+
+    @Override
+    public double keyOf(int vertex) {
+        if (!contains(vertex)) {
+            throw new IllegalArgumentException("顶点不在堆中: " + vertex);
+        }
+        return keys[vertex];
+    }
+
+    @Override
+    public int peekMin() {
+        if (root == NONE) {
+            throw new NoSuchElementException("堆为空");
+        }
+        return root;
+    }
+
+    @Override
+    public int extractMin() {
+        int min = peekMin();
+        inHeap[min] = false;
+        size--;
+
+        // 第一趟：从左到右两两合并
+        int count = 0;
+        int c = child[min];
+        while (c != NONE) {
+            int a = c;
+            int b = sibling[a];
+            c = b == NONE ? NONE : sibling[b];
+            detach(a);
+            if (b != NONE) {
+                detach(b);
+            }
+            scratch[count++] = meld(a, b);
+        }
+        // 第二趟：从右到左依次合并
+        int merged = NONE;
+        for (int i = count - 1; i >= 0; i--) {
+            merged = meld(scratch[i], merged);
+        }
+        child[min] = NONE;
+        root = merged;
+        return min;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        while (root != NONE) {
+            int v = root;
+            root = NONE;
+            // 按先序把整棵树的指针复位
+            int top = 0;
+            scratch[top++] = v;
+            while (top > 0) {
+                int x = scratch[--top];
+                for (int y = child[x]; y != NONE; ) {
+                    int next = sibling[y];
+                    scratch[top++] = y;
+                    y = next;
+                }
+                child[x] = NONE;
+                sibling[x] = NONE;
+                prev[x] = NONE;
+                inHeap[x] = false;
+            }
+        }
+        size = 0;
+    }
+
+    // 合并两棵树，返回新根；键较大（或键相同编号较大）的根成为另一个根的最左子节点
+    private int meld(int a, int b) {
+        if (a == NONE) return b;
+        if (b == NONE) return a;
+        if (less(b, a)) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        int first = child[a];
+        sibling[b] = first;
+        if (first != NONE) {
+            prev[first] = b;
+        }
+        prev[b] = a;
+        child[a] = b;
+        return a;
+    }
+
+    private void detach(int v) {
+        sibling[v] = NONE;
+        prev[v] = NONE;
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private void checkVertex(int vertex) {
+        if (vertex < 0 || vertex >= inHeap.length) {
+            throw new IllegalArgumentException("顶点索引越界: " + vertex);
+        }
+    }
+}
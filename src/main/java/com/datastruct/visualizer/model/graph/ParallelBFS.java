@@ -0,0 +1,280 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 按层同步的并行广度优先搜索（方向优化）
+ * Level-synchronous parallel BFS that switches between top-down and bottom-up per level
+ *
+ * 每层在 ForkJoinPool 上并行扩展：
+ * 自顶向下时遍历前沿顶点的出边，自底向上时遍历未访问顶点的入边并检查其是否在前沿中。
+ * 每层按估计代价选择方向：自顶向下为前沿出边数，自底向上为未访问顶点的入边数加一次顶点扫描。
+ *
+ * 结果与 Graph.breadthFirstSearch 完全一致：v 的父节点是顺序 BFS 中最先发现它的顶点，
+ * 即上一层中访问次序最小、且与 v 相邻的顶点；同一父节点发现的顶点按其邻接顺序排列。
+ * 为此每个新顶点记录键 (父节点访问次序 << 32 | v 在父节点邻接表中的位置)，取最小值，
+ * 每层结束后按键排序得到该层的访问次序。因为需要最小键，自底向上不能在找到第一个父节点时提前退出。
+ */
+public final class ParallelBFS {
+
+    // 每个叶子任务处理的顶点数
+    private static final int LEAF_SIZE = 512;
+
+    private final CompactAdjacency adj;
+    private final ForkJoinPool pool;
+    private final int[] level;
+    private final int[] rank;
+    private final AtomicLongArray best;
+    // 反向邻接：顶点 v 的入边位于 [reverseOffsets[v], reverseOffsets[v + 1])，
+    // 入边来源与该边在来源行中的位置在首次自底向上时才填充
+    private final int[] reverseOffsets;
+    private int[] reverseSources;
+    private int[] reverseSlots;
+
+    private ParallelBFS(CompactAdjacency adj, ForkJoinPool pool) {
+        this.adj = adj;
+        this.pool = pool;
+        int n = adj.numVertices;
+        this.level = new int[n];
+        this.rank = new int[n];
+        this.best = new AtomicLongArray(n);
+        int[] offsets = new int[n + 1];
+        for (int target : adj.targets) {
+            offsets[target + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        this.reverseOffsets = offsets;
+    }
+
+    /**
+     * BFS 结果：层号（不可达为 -1）、父节点（起点与不可达顶点为 -1）以及访问次序
+     */
+    public static final class Result {
+        private final int[] distances;
+        private final int[] parents;
+        private final int[] visitOrder;
+
+        Result(int[] distances, int[] parents, int[] visitOrder) {
+            this.distances = distances;
+            this.parents = parents;
+            this.visitOrder = visitOrder;
+        }
+
+        public int[] getDistances() { return distances.clone(); }
+        public int[] getParents() { return parents.clone(); }
+        public int[] getVisitOrder() { return visitOrder.clone(); }
+
+        public int getDistance(int vertex) { return distances[vertex]; }
+        public int getParent(int vertex) { return parents[vertex]; }
+        public int getNumVisited() { return visitOrder.length; }
+    }
+
+    public static Result search(Graph graph, int startVertex) {
+        return search(graph, startVertex, ForkJoinPool.commonPool());
+    }
+
+    public static Result search(Graph graph, int startVertex, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        CompactAdjacency adj = CompactAdjacency.of(graph);
+        if (startVertex < 0 || startVertex >= adj.numVertices) {
+            throw new IllegalArgumentException("起始顶点索引越界");
+        }
+        return new ParallelBFS(adj, pool).run(startVertex);
+    }
+
+    private Result run(int start) {
+        int n = adj.numVertices;
+        int[] parents = new int[n];
+        int[] order = new int[n];
+        Arrays.fill(level, -1);
+        Arrays.fill(parents, -1);
+        for (int v = 0; v < n; v++) {
+            best.set(v, Long.MAX_VALUE);
+        }
+
+        level[start] = 0;
+        rank[start] = 0;
+        order[0] = start;
+        int visited = 1;
+        int frontierFrom = 0;
+        // 未访问顶点的入边总数（即尚未被任何方向检查过的边）
+        long unexploredEdges = adj.numEdges() - (long) inDegreeOf(start);
+
+        for (int depth = 0; frontierFrom < visited; depth++) {
+            int frontierTo = visited;
+            long frontierEdges = 0;
+            for (int i = frontierFrom; i < frontierTo; i++) {
+                int u = order[i];
+                frontierEdges += adj.offsets[u + 1] - adj.offsets[u];
+            }
+
+            IntStack discovered;
+            if (frontierEdges > unexploredEdges + n / 8) {
+                discovered = bottomUp(depth);
+            } else {
+                discovered = topDown(order, frontierFrom, frontierTo);
+            }
+
+            // 按键排序得到与顺序 BFS 相同的次序
+            int count = discovered.size();
+            long[] keys = new long[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = best.get(discovered.get(i));
+            }
+            if (count > LEAF_SIZE) {
+                Arrays.parallelSort(keys);
+            } else {
+                Arrays.sort(keys);
+            }
+            int base = visited;
+            int next = depth + 1;
+            for (int i = 0; i < count; i++) {
+                int parent = order[(int) (keys[i] >>> 32)];
+                int v = adj.targets[adj.offsets[parent] + (int) keys[i]];
+                level[v] = next;
+                parents[v] = parent;
+                rank[v] = base + i;
+                order[base + i] = v;
+                unexploredEdges -= inDegreeOf(v);
+            }
+            frontierFrom = frontierTo;
+            visited += count;
+        }
+
+        return new Result(level.clone(), parents, Arrays.copyOf(order, visited));
+    }
+
+    private int inDegreeOf(int v) {
+        return reverseOffsets[v + 1] - reverseOffsets[v];
+    }
+
+    private static long key(int parentRank, int slot) {
+        return ((long) parentRank << 32) | slot;
+    }
+
+    /* ------------------ 自顶向下 ------------------ */
+
+    private IntStack topDown(int[] order, int from, int to) {
+        TopDownTask task = new TopDownTask(order, from, to);
+        return to - from <= LEAF_SIZE ? task.compute() : pool.invoke(task);
+    }
+
+    private final class TopDownTask extends RecursiveTask<IntStack> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] order;
+        private final int from;
+        private final int to;
+
+        TopDownTask(int[] order, int from, int to) {
+            this.order = order;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected IntStack compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                TopDownTask left = new TopDownTask(order, from, mid);
+                left.fork();
+                IntStack right = new TopDownTask(order, mid, to).compute();
+                IntStack result = left.join();
+                result.pushAll(right);
+                return result;
+            }
+            IntStack found = new IntStack();
+            for (int i = from; i < to; i++) {
+                int u = order[i];
+                int offset = adj.offsets[u];
+                for (int k = offset; k < adj.offsets[u + 1]; k++) {
+                    int v = adj.targets[k];
+                    if (level[v] != -1) continue;
+                    long candidate = key(i, k - offset);
+                    long previous = best.getAndAccumulate(v, candidate, Math::min);
+                    // 第一个发现 v 的任务负责把它加入下一层
+                    if (previous == Long.MAX_VALUE) {
+                        found.push(v);
+                    }
+                }
+            }
+            return found;
+        }
+    }
+
+    /* ------------------ 自底向上 ------------------ */
+
+    private IntStack bottomUp(int depth) {
+        if (reverseSources == null) {
+            buildReverse();
+        }
+        BottomUpTask task = new BottomUpTask(depth, 0, adj.numVertices);
+        return adj.numVertices <= LEAF_SIZE ? task.compute() : pool.invoke(task);
+    }
+
+    private final class BottomUpTask extends RecursiveTask<IntStack> {
+        private static final long serialVersionUID = 1L;
+
+        private final int depth;
+        private final int from;
+        private final int to;
+
+        BottomUpTask(int depth, int from, int to) {
+            this.depth = depth;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected IntStack compute() {
+            if (to - from > LEAF_SIZE * 8) {
+                int mid = (from + to) >>> 1;
+                BottomUpTask left = new BottomUpTask(depth, from, mid);
+                left.fork();
+                IntStack right = new BottomUpTask(depth, mid, to).compute();
+                IntStack result = left.join();
+                result.pushAll(right);
+                return result;
+            }
+            IntStack found = new IntStack();
+            for (int v = from; v < to; v++) {
+                if (level[v] != -1) continue;
+                long min = Long.MAX_VALUE;
+                for (int k = reverseOffsets[v]; k < reverseOffsets[v + 1]; k++) {
+                    int u = reverseSources[k];
+                    if (level[u] == depth) {
+                        min = Math.min(min, key(rank[u], reverseSlots[k]));
+                    }
+                }
+                if (min != Long.MAX_VALUE) {
+                    // 每个 v 只由一个任务处理，直接写入
+                    best.set(v, min);
+                    found.push(v);
+                }
+            }
+            return found;
+        }
+    }
+
+    private void buildReverse() {
+        int n = adj.numVertices;
+        int[] cursor = Arrays.copyOf(reverseOffsets, n);
+        int[] sources = new int[adj.numEdges()];
+        int[] slots = new int[adj.numEdges()];
+        for (int u = 0; u < n; u++) {
+            int offset = adj.offsets[u];
+            for (int k = offset; k < adj.offsets[u + 1]; k++) {
+                int slot = cursor[adj.targets[k]]++;
+                sources[slot] = u;
+                slots[slot] = k - offset;
+            }
+        }
+        reverseSources = sources;
+        reverseSlots = slots;
+    }
+}
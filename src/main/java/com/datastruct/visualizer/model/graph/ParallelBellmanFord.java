@@ -0,0 +1,139 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 按轮并行的 Bellman-Ford
+ * Round-based parallel Bellman-Ford with a partitioned in-edge array
+ *
+ * 把所有边按终点分组（入边数组），再按边数均匀切分为若干段，每段由一个任务负责。
+ * 每一轮中任务只读取上一轮的距离、只写入自己负责的终点，因此不需要加锁或 CAS，结果也与线程数无关。
+ * 只有上一轮距离变小的起点才需要重新松弛其出边。第 k 轮结束后，所有边数不超过 k 的最短路径都已确定，
+ * 因此至多 V-1 轮收敛；第 V 轮仍有变化说明存在负权回路。边集与 MST.bellmanFord 相同。
+ */
+public final class ParallelBellmanFord {
+
+    // 每段至少包含的边数，避免切分过细
+    private static final int MIN_EDGES_PER_CHUNK = 4096;
+
+    private ParallelBellmanFord() {
+    }
+
+    public static MST.ShortestPathResult shortestPaths(Graph graph, int source) {
+        return shortestPaths(graph, source, ForkJoinPool.commonPool());
+    }
+
+    public static MST.ShortestPathResult shortestPaths(Graph graph, int source, ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        CompactAdjacency adj = CompactAdjacency.of(graph);
+        int n = adj.numVertices;
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("源点索引越界");
+        }
+
+        // 入边数组：终点 v 的入边位于 [inOffsets[v], inOffsets[v + 1])
+        int m = adj.numEdges();
+        int[] inOffsets = new int[n + 1];
+        for (int target : adj.targets) {
+            inOffsets[target + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        int[] cursor = Arrays.copyOf(inOffsets, n);
+        int[] inSources = new int[m];
+        double[] inWeights = new double[m];
+        for (int u = 0; u < n; u++) {
+            for (int k = adj.offsets[u]; k < adj.offsets[u + 1]; k++) {
+                int slot = cursor[adj.targets[k]]++;
+                inSources[slot] = u;
+                inWeights[slot] = adj.weights[k];
+            }
+        }
+
+        int[] bounds = partition(inOffsets, n, pool.getParallelism());
+        int chunks = bounds.length - 1;
+
+        double[] dist = new double[n];
+        double[] next = new double[n];
+        int[] prev = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+        dist[source] = 0.0;
+        // changed[u]：u 的距离在上一轮中变小
+        boolean[] changed = new boolean[n];
+        boolean[] nextChanged = new boolean[n];
+        changed[source] = true;
+        boolean[] chunkChanged = new boolean[chunks];
+
+        for (int round = 1; round <= n; round++) {
+            final double[] cur = dist;
+            final double[] out = next;
+            final boolean[] active = changed;
+            final boolean[] marks = nextChanged;
+            Runnable relaxRound = () -> IntStream.range(0, chunks).parallel().forEach(c -> {
+                boolean any = false;
+                for (int v = bounds[c]; v < bounds[c + 1]; v++) {
+                    double best = cur[v];
+                    int bestPrev = -1;
+                    for (int k = inOffsets[v]; k < inOffsets[v + 1]; k++) {
+                        int u = inSources[k];
+                        if (!active[u]) continue;
+                        double alt = cur[u] + inWeights[k];
+                        if (alt < best) {
+                            best = alt;
+                            bestPrev = u;
+                        }
+                    }
+                    out[v] = best;
+                    marks[v] = bestPrev != -1;
+                    if (bestPrev != -1) {
+                        prev[v] = bestPrev;
+                        any = true;
+                    }
+                }
+                chunkChanged[c] = any;
+            });
+            if (chunks == 1) {
+                relaxRound.run();
+            } else {
+                pool.submit(relaxRound).join();
+            }
+
+            boolean updated = false;
+            for (boolean b : chunkChanged) {
+                updated |= b;
+            }
+            if (!updated) {
+                return new MST.ShortestPathResult(out, prev, false);
+            }
+            if (round == n) {
+                // V-1 轮之后仍能松弛：存在负权回路
+                return new MST.ShortestPathResult(out, prev, true);
+            }
+            dist = out;
+            next = cur;
+            changed = marks;
+            nextChanged = active;
+        }
+        // n == 0 不会走到这里（源点校验已排除）
+        return new MST.ShortestPathResult(dist, prev, false);
+    }
+
+    // 按入边数把 [0, n) 切分为若干连续段
+    private static int[] partition(int[] inOffsets, int n, int parallelism) {
+        long m = inOffsets[n];
+        int chunks = (int) Math.max(1, Math.min((long) parallelism * 4, (m + n) / MIN_EDGES_PER_CHUNK));
+        int[] bounds = new int[chunks + 1];
+        int v = 0;
+        for (int c = 1; c < chunks; c++) {
+            long goal = (m + n) * c / chunks;
+            while (v < n && (long) inOffsets[v] + v < goal) v++;
+            bounds[c] = v;
+        }
+        bounds[chunks] = n;
+        return bounds;
+    }
+}
@@ -0,0 +1,112 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.List;
+
+/**
+ * 持久化数组（32 叉位分区字典树）
+ * 修改操作通过路径复制返回新版本，旧版本保持不变并与新版本共享未修改的节点；
+ * get/set/append 均为 O(log32 n)。
+ */
+final class PersistentArray<T> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentArray<?> EMPTY = new PersistentArray<>(0, 0, new Object[WIDTH]);
+
+    private final int size;
+    // 根节点所在层的位移，0 表示根节点就是叶子
+    private final int shift;
+    private final Object[] root;
+
+    private PersistentArray(int size, int shift, Object[] root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentArray<T> empty() {
+        return (PersistentArray<T>) EMPTY;
+    }
+
+    /**
+     * 由现有元素批量构建，O(n)
+     */
+    static <T> PersistentArray<T> of(List<T> items) {
+        int n = items.size();
+        if (n == 0) {
+            return empty();
+        }
+        // 先构建叶子层，再逐层向上合并，直到只剩一个节点
+        Object[] level = new Object[(n + MASK) >>> BITS];
+        for (int i = 0; i < level.length; i++) {
+            Object[] leaf = new Object[WIDTH];
+            int from = i << BITS;
+            for (int j = 0; j < WIDTH && from + j < n; j++) {
+                leaf[j] = items.get(from + j);
+            }
+            level[i] = leaf;
+        }
+        int shift = 0;
+        while (level.length > 1) {
+            Object[] parents = new Object[(level.length + MASK) >>> BITS];
+            for (int i = 0; i < parents.length; i++) {
+                Object[] node = new Object[WIDTH];
+                int from = i << BITS;
+                System.arraycopy(level, from, node, 0, Math.min(WIDTH, level.length - from));
+                parents[i] = node;
+            }
+            level = parents;
+            shift += BITS;
+        }
+        return new PersistentArray<>(n, shift, (Object[]) level[0]);
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return (T) node[index & MASK];
+    }
+
+    /**
+     * 返回把 index 处替换为 value 的新版本
+     */
+    PersistentArray<T> set(int index, T value) {
+        return new PersistentArray<>(size, shift, assoc(shift, root, index, value));
+    }
+
+    /**
+     * 返回在末尾追加 value 的新版本
+     */
+    PersistentArray<T> append(T value) {
+        Object[] newRoot = root;
+        int newShift = shift;
+        // 当前树已满时增加一层
+        if (size == 1 << (shift + BITS)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newShift += BITS;
+        }
+        return new PersistentArray<>(size + 1, newShift, assoc(newShift, newRoot, size, value));
+    }
+
+    private static Object[] assoc(int level, Object[] node, int index, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            int slot = (index >>> level) & MASK;
+            copy[slot] = assoc(level - BITS, (Object[]) copy[slot], index, value);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,308 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+
+/**
+ * 持久化（不可变、结构共享）的图
+ * Persistent graph with structural sharing between versions
+ *
+ * 每个顶点的出边保存在一个持久化行（PersistentRow，按目标顶点分区的 32 叉字典树）中，所有行再保存在
+ * 32 叉字典树（PersistentArray）中。withEdge/withoutEdge 等操作返回新版本：只复制行内从根到该边的路径
+ * 以及外层字典树中从根到该行的路径，代价为 O(log32 V)，与顶点的度数无关，其余部分与旧版本共享。
+ * 因此保存一个版本只需保存引用（O(1)），适合实现撤销/重做。删除顶点需要重新编号，代价为 O(V + E)。
+ *
+ * 边的语义与来源图一致：无向图同时保存两个方向，自环只保存一次。由邻接矩阵构建的版本（isMatrixBacked）
+ * 保留矩阵的对角线：新顶点的对角线默认为权重 0 的自环，forEachNeighbor/hasEdge 能看到它，
+ * 但与 AdjacencyMatrix.getAllEdges 一样不计入边数。
+ */
+public final class PersistentGraph {
+
+    private final int numVertices;
+    private final boolean isDirected;
+    // 按邻接矩阵的语义保存（对角线存在但不算作边）
+    private final boolean matrixBacked;
+    // 不含矩阵对角线，与 getAllEdges().size() 一致
+    private final int edgeCount;
+    private final PersistentArray<PersistentRow> rows;
+    // 自定义标签；null 表示所有顶点都使用默认标签（索引）
+    private final PersistentArray<String> labels;
+
+    private PersistentGraph(int numVertices, boolean isDirected, boolean matrixBacked, int edgeCount,
+                            PersistentArray<PersistentRow> rows, PersistentArray<String> labels) {
+        this.numVertices = numVertices;
+        this.isDirected = isDirected;
+        this.matrixBacked = matrixBacked;
+        this.edgeCount = edgeCount;
+        this.rows = rows;
+        this.labels = labels;
+    }
+
+    /**
+     * 含 numVertices 个孤立顶点的图
+     */
+    public static PersistentGraph empty(int numVertices, boolean isDirected) {
+        if (numVertices < 0) {
+            throw new IllegalArgumentException("顶点数不能为负数");
+        }
+        return new PersistentGraph(numVertices, isDirected, false, 0,
+                PersistentArray.of(Collections.nCopies(numVertices, PersistentRow.EMPTY)), null);
+    }
+
+    /**
+     * 由任意图构建（边集与 getAllEdges() 一致，并复制顶点标签与存储语义），O(V + E)。
+     * 来源是邻接矩阵时一并保留对角线
+     */
+    public static PersistentGraph fromGraph(Graph graph) {
+        int n = graph.getNumVertices();
+        boolean matrixBacked = graph.isMatrixBacked();
+        EdgeBuffer edges = graph.getEdgeBuffer();
+        int m = edges.size();
+
+        // 按起点分桶（矩阵每行多留一个对角线的位置），桶内按目标顶点排序后批量构建一行
+        int[] start = new int[n + 1];
+        for (int i = 0; i < m; i++) {
+            start[edges.sourceAt(i) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            start[v + 1] += start[v] + (matrixBacked ? 1 : 0);
+        }
+        long[] keys = new long[start[n]];
+        double[] weights = new double[start[n]];
+        int[] fill = Arrays.copyOf(start, n);
+        for (int i = 0; i < m; i++) {
+            int slot = fill[edges.sourceAt(i)]++;
+            keys[slot] = ((long) edges.destinationAt(i) << 32) | slot;
+            weights[slot] = edges.weightAt(i);
+        }
+
+        List<PersistentRow> rowList = new ArrayList<>(n);
+        int[] targets = new int[16];
+        double[] rowWeights = new double[16];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            int end = fill[v];
+            // 矩阵的对角线保存在行内，但不计入边数
+            boolean diagonal = matrixBacked && graph.hasEdge(v, v);
+            if (diagonal) {
+                keys[end] = ((long) v << 32) | end;
+                weights[end] = graph.getWeight(v, v);
+                end++;
+            }
+            int size = end - start[v];
+            Arrays.sort(keys, start[v], end);
+            if (size > targets.length) {
+                targets = new int[Math.max(size, targets.length * 2)];
+                rowWeights = new double[targets.length];
+            }
+            for (int k = 0; k < size; k++) {
+                long key = keys[start[v] + k];
+                targets[k] = (int) (key >>> 32);
+                rowWeights[k] = weights[(int) key];
+            }
+            rowList.add(PersistentRow.of(targets, rowWeights, size));
+            count += diagonal ? size - 1 : size;
+        }
+
+        PersistentArray<String> labels = null;
+        for (int v = 0; v < n; v++) {
+            String label = graph.getVertexLabel(v);
+            if (!label.equals(String.valueOf(v))) {
+                if (labels == null) {
+                    labels = PersistentArray.of(Collections.nCopies(n, (String) null));
+                }
+                labels = labels.set(v, label);
+            }
+        }
+        return new PersistentGraph(n, graph.isDirected(), matrixBacked, count, PersistentArray.of(rowList), labels);
+    }
+
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    /**
+     * 边数，与 getAllEdges().size() 一致（不含矩阵的对角线）
+     */
+    public int getNumEdges() {
+        return edgeCount;
+    }
+
+    /**
+     * 是否按邻接矩阵的语义保存，见 Graph.isMatrixBacked
+     */
+    public boolean isMatrixBacked() {
+        return matrixBacked;
+    }
+
+    public boolean hasEdge(int source, int destination) {
+        if (!isValidVertex(source) || !isValidVertex(destination)) {
+            return false;
+        }
+        return rows.get(source).contains(destination);
+    }
+
+    public double getWeight(int source, int destination) {
+        if (!isValidVertex(source) || !isValidVertex(destination)) {
+            return Double.MAX_VALUE;
+        }
+        return rows.get(source).weight(destination);
+    }
+
+    /**
+     * 按目标顶点升序访问出边
+     */
+    public void forEachNeighbor(int vertex, Graph.NeighborVisitor visitor) {
+        if (!isValidVertex(vertex)) {
+            return;
+        }
+        rows.get(vertex).forEach(visitor);
+    }
+
+    public int getDegree(int vertex) {
+        return isValidVertex(vertex) ? rows.get(vertex).size() : 0;
+    }
+
+    public String getVertexLabel(int vertex) {
+        if (labels != null && isValidVertex(vertex)) {
+            String label = labels.get(vertex);
+            if (label != null) return label;
+        }
+        return String.valueOf(vertex);
+    }
+
+    /**
+     * 添加或更新一条边后的新版本
+     */
+    public PersistentGraph withEdge(int source, int destination, double weight) {
+        checkVertices(source, destination);
+        PersistentArray<PersistentRow> newRows = rows;
+        int count = edgeCount;
+
+        PersistentRow row = rows.get(source);
+        PersistentRow updated = row.with(destination, weight);
+        if (updated != row) {
+            newRows = newRows.set(source, updated);
+            if (!matrixBacked || source != destination) {
+                count += updated.size() - row.size();
+            }
+        }
+        if (!isDirected && source != destination) {
+            row = newRows.get(destination);
+            updated = row.with(source, weight);
+            if (updated != row) {
+                newRows = newRows.set(destination, updated);
+                count += updated.size() - row.size();
+            }
+        }
+        return newRows == rows ? this : new PersistentGraph(numVertices, isDirected, matrixBacked, count, newRows, labels);
+    }
+
+    /**
+     * 删除一条边后的新版本（边不存在时返回自身）
+     */
+    public PersistentGraph withoutEdge(int source, int destination) {
+        checkVertices(source, destination);
+        PersistentArray<PersistentRow> newRows = rows;
+        int count = edgeCount;
+
+        PersistentRow row = rows.get(source);
+        PersistentRow updated = row.without(destination);
+        if (updated != row) {
+            newRows = newRows.set(source, updated);
+            if (!matrixBacked || source != destination) {
+                count--;
+            }
+        }
+        if (!isDirected && source != destination) {
+            row = newRows.get(destination);
+            updated = row.without(source);
+            if (updated != row) {
+                newRows = newRows.set(destination, updated);
+                count--;
+            }
+        }
+        return newRows == rows ? this : new PersistentGraph(numVertices, isDirected, matrixBacked, count, newRows, labels);
+    }
+
+    /**
+     * 在末尾添加一个孤立顶点后的新版本（矩阵语义下带有权重为 0 的对角线）
+     */
+    public PersistentGraph withVertex(String label) {
+        PersistentArray<String> newLabels = labels;
+        if (newLabels != null) {
+            newLabels = newLabels.append(null);
+        }
+        PersistentRow row = matrixBacked ? PersistentRow.EMPTY.with(numVertices, 0.0) : PersistentRow.EMPTY;
+        PersistentGraph g = new PersistentGraph(numVertices + 1, isDirected, matrixBacked, edgeCount,
+                rows.append(row), newLabels);
+        return label == null ? g : g.withVertexLabel(numVertices, label);
+    }
+
+    /**
+     * 删除顶点后的新版本：大于 vertex 的顶点编号减一，标签随顶点一起移动。O(V + E)
+     */
+    public PersistentGraph withoutVertex(int vertex) {
+        if (!isValidVertex(vertex)) {
+            throw new IllegalArgumentException("顶点索引无效: " + vertex);
+        }
+        List<PersistentRow> rowList = new ArrayList<>(numVertices - 1);
+        List<String> labelList = labels != null ? new ArrayList<>(numVertices - 1) : null;
+        int count = 0;
+        for (int u = 0; u < numVertices; u++) {
+            if (u == vertex) continue;
+            PersistentRow row = rows.get(u).withoutAndShift(vertex);
+            rowList.add(row);
+            count += row.size();
+            if (matrixBacked && row.contains(rowList.size() - 1)) {
+                count--;
+            }
+            if (labelList != null) {
+                labelList.add(labels.get(u));
+            }
+        }
+        return new PersistentGraph(numVertices - 1, isDirected, matrixBacked, count, PersistentArray.of(rowList),
+                labelList != null ? PersistentArray.of(labelList) : null);
+    }
+
+    /**
+     * 修改顶点标签后的新版本；null 或与索引相同的标签表示恢复默认
+     */
+    public PersistentGraph withVertexLabel(int vertex, String label) {
+        if (!isValidVertex(vertex)) {
+            throw new IllegalArgumentException("顶点索引无效: " + vertex);
+        }
+        if (label != null && label.equals(String.valueOf(vertex))) {
+            label = null;
+        }
+        if (labels == null) {
+            if (label == null) return this;
+            return new PersistentGraph(numVertices, isDirected, matrixBacked, edgeCount, rows,
+                    PersistentArray.of(Collections.nCopies(numVertices, (String) null)).set(vertex, label));
+        }
+        if (Objects.equals(labels.get(vertex), label)) {
+            return this;
+        }
+        return new PersistentGraph(numVertices, isDirected, matrixBacked, edgeCount, rows, labels.set(vertex, label));
+    }
+
+    /**
+     * 所有标签恢复为索引后的新版本，O(1)
+     */
+    public PersistentGraph withDefaultLabels() {
+        return labels == null ? this : new PersistentGraph(numVertices, isDirected, matrixBacked, edgeCount, rows, null);
+    }
+
+    private boolean isValidVertex(int vertex) {
+        return vertex >= 0 && vertex < numVertices;
+    }
+
+    private void checkVertices(int source, int destination) {
+        if (!isValidVertex(source) || !isValidVertex(destination)) {
+            throw new IllegalArgumentException("顶点索引无效");
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.Arrays;
+
+/**
+ * 持久化的出边行（按目标顶点分区的 32 叉字典树）
+ * 目标顶点从高位到低位每 5 位划分一层，根节点的层数由最大的目标顶点决定。每个节点用两个位图区分
+ * 槽位上直接保存的边与子节点（同一槽位只会是二者之一），只有前缀相同的目标顶点才会向下分层，
+ * 因此按槽位顺序遍历即为目标顶点升序。修改只复制从根到该边的 O(log32 V) 个节点（每个至多 32 项），
+ * 其余节点与旧版本共享。子节点至少包含两条边，删除后只剩一条时把它并回父节点。
+ */
+final class PersistentRow {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int[] NO_KEYS = new int[0];
+    private static final double[] NO_VALUES = new double[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    static final PersistentRow EMPTY = new PersistentRow(0, 0, new Node(0, 0, NO_KEYS, NO_VALUES, NO_NODES));
+
+    private final int size;
+    // 根节点按 (target >>> shift) & MASK 选择槽位
+    private final int shift;
+    private final Node root;
+
+    private PersistentRow(int size, int shift, Node root) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+    }
+
+    /**
+     * 由严格升序的目标顶点批量构建，O(count · log32 V)
+     */
+    static PersistentRow of(int[] targets, double[] weights, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        int shift = 0;
+        while (!fits(targets[count - 1], shift)) {
+            shift += BITS;
+        }
+        return new PersistentRow(count, shift, build(targets, weights, 0, count, shift));
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int target) {
+        if (size == 0 || target < 0 || !fits(target, shift)) {
+            return false;
+        }
+        Node node = root;
+        int s = shift;
+        while (true) {
+            int bit = 1 << ((target >>> s) & MASK);
+            if ((node.dataMap & bit) != 0) {
+                return node.keys[index(node.dataMap, bit)] == target;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return false;
+            }
+            node = node.nodes[index(node.nodeMap, bit)];
+            s -= BITS;
+        }
+    }
+
+    /**
+     * 边权，不存在时返回 Double.MAX_VALUE（与 Graph.getWeight 一致）
+     */
+    double weight(int target) {
+        if (size == 0 || target < 0 || !fits(target, shift)) {
+            return Double.MAX_VALUE;
+        }
+        Node node = root;
+        int s = shift;
+        while (true) {
+            int bit = 1 << ((target >>> s) & MASK);
+            if ((node.dataMap & bit) != 0) {
+                int i = index(node.dataMap, bit);
+                return node.keys[i] == target ? node.values[i] : Double.MAX_VALUE;
+            }
+            if ((node.nodeMap & bit) == 0) {
+                return Double.MAX_VALUE;
+            }
+            node = node.nodes[index(node.nodeMap, bit)];
+            s -= BITS;
+        }
+    }
+
+    /**
+     * 按目标顶点升序访问
+     */
+    void forEach(Graph.NeighborVisitor visitor) {
+        forEach(root, visitor);
+    }
+
+    /**
+     * 添加或更新一条边后的新版本（权重相同时返回自身）
+     */
+    PersistentRow with(int target, double weight) {
+        Node r = root;
+        int s = shift;
+        while (!fits(target, s)) {
+            // 根节点容纳不下该目标顶点时向上加一层，原有的边都落在新根的 0 号槽位
+            if (size == 1) {
+                r = new Node(1, 0, r.keys, r.values, NO_NODES);
+            } else if (size > 1) {
+                r = new Node(0, 1, NO_KEYS, NO_VALUES, new Node[] { r });
+            }
+            s += BITS;
+        }
+        int[] added = new int[1];
+        Node updated = put(r, s, target, weight, added);
+        if (updated == r && s == shift) {
+            return this;
+        }
+        return new PersistentRow(size + added[0], s, updated);
+    }
+
+    /**
+     * 删除一条边后的新版本（边不存在时返回自身）
+     */
+    PersistentRow without(int target) {
+        if (!contains(target)) {
+            return this;
+        }
+        if (size == 1) {
+            return EMPTY;
+        }
+        return new PersistentRow(size - 1, shift, remove(root, shift, target));
+    }
+
+    /**
+     * 删除指向 vertex 的边，并把更大的目标顶点减一（删除顶点时使用），O(度数 · log32 V)
+     */
+    PersistentRow withoutAndShift(int vertex) {
+        int[] targets = new int[size];
+        double[] weights = new double[size];
+        int[] count = new int[1];
+        forEach((target, weight) -> {
+            if (target != vertex) {
+                targets[count[0]] = target > vertex ? target - 1 : target;
+                weights[count[0]] = weight;
+                count[0]++;
+            }
+        });
+        return of(targets, weights, count[0]);
+    }
+
+    /* ------------------ 字典树操作 ------------------ */
+
+    // 根节点层的位移 shift 能否容纳 target（目标顶点非负，位移达到 31 位时总能容纳）
+    private static boolean fits(int target, int shift) {
+        return shift + BITS >= Integer.SIZE - 1 || (target >>> (shift + BITS)) == 0;
+    }
+
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private static Node put(Node node, int s, int target, double weight, int[] added) {
+        int bit = 1 << ((target >>> s) & MASK);
+        if ((node.dataMap & bit) != 0) {
+            int i = index(node.dataMap, bit);
+            if (node.keys[i] == target) {
+                if (Double.compare(node.values[i], weight) == 0) return node;
+                double[] values = node.values.clone();
+                values[i] = weight;
+                return new Node(node.dataMap, node.nodeMap, node.keys, values, node.nodes);
+            }
+            // 两个目标顶点在这一层落入同一槽位：一起下移到子节点
+            added[0] = 1;
+            Node child = pair(node.keys[i], node.values[i], target, weight, s - BITS);
+            return node.dataToNode(bit, i, child);
+        }
+        if ((node.nodeMap & bit) != 0) {
+            int j = index(node.nodeMap, bit);
+            Node child = put(node.nodes[j], s - BITS, target, weight, added);
+            return child == node.nodes[j] ? node : node.withNode(j, child);
+        }
+        added[0] = 1;
+        return node.insertData(bit, target, weight);
+    }
+
+    private static Node remove(Node node, int s, int target) {
+        int bit = 1 << ((target >>> s) & MASK);
+        if ((node.dataMap & bit) != 0) {
+            return node.removeData(bit, index(node.dataMap, bit));
+        }
+        int j = index(node.nodeMap, bit);
+        Node child = remove(node.nodes[j], s - BITS, target);
+        if (child.nodeMap == 0 && child.keys.length == 1) {
+            return node.nodeToData(bit, j, child.keys[0], child.values[0]);
+        }
+        return node.withNode(j, child);
+    }
+
+    // 两个不同的目标顶点组成的子树（在某一层槽位不同后停止分层）
+    private static Node pair(int k1, double v1, int k2, double v2, int s) {
+        int a = (k1 >>> s) & MASK;
+        int b = (k2 >>> s) & MASK;
+        if (a == b) {
+            return new Node(0, 1 << a, NO_KEYS, NO_VALUES, new Node[] { pair(k1, v1, k2, v2, s - BITS) });
+        }
+        return a < b
+                ? new Node((1 << a) | (1 << b), 0, new int[] { k1, k2 }, new double[] { v1, v2 }, NO_NODES)
+                : new Node((1 << a) | (1 << b), 0, new int[] { k2, k1 }, new double[] { v2, v1 }, NO_NODES);
+    }
+
+    // targets[from, to) 严格升序，且在 s 以上的位都相同
+    private static Node build(int[] targets, double[] weights, int from, int to, int s) {
+        int dataMap = 0;
+        int nodeMap = 0;
+        int dataCount = 0;
+        int nodeCount = 0;
+        int[] keys = new int[to - from];
+        double[] values = new double[to - from];
+        Node[] nodes = new Node[Math.min(to - from, MASK + 1)];
+        int i = from;
+        while (i < to) {
+            int slot = (targets[i] >>> s) & MASK;
+            int j = i + 1;
+            while (j < to && ((targets[j] >>> s) & MASK) == slot) j++;
+            if (j - i == 1) {
+                dataMap |= 1 << slot;
+                keys[dataCount] = targets[i];
+                values[dataCount] = weights[i];
+                dataCount++;
+            } else {
+                nodeMap |= 1 << slot;
+                nodes[nodeCount++] = build(targets, weights, i, j, s - BITS);
+            }
+            i = j;
+        }
+        return new Node(dataMap, nodeMap,
+                dataCount == keys.length ? keys : Arrays.copyOf(keys, dataCount),
+                dataCount == values.length ? values : Arrays.copyOf(values, dataCount),
+                nodeCount == 0 ? NO_NODES : Arrays.copyOf(nodes, nodeCount));
+    }
+
+    private static void forEach(Node node, Graph.NeighborVisitor visitor) {
+        int di = 0;
+        int ni = 0;
+        for (int bits = node.dataMap | node.nodeMap; bits != 0; bits &= bits - 1) {
+            int bit = bits & -bits;
+            if ((node.dataMap & bit) != 0) {
+                visitor.visit(node.keys[di], node.values[di]);
+                di++;
+            } else {
+                forEach(node.nodes[ni++], visitor);
+            }
+        }
+    }
+
+    /**
+     * 不可变节点：keys/values 按槽位顺序保存直接存放的边，nodes 按槽位顺序保存子节点
+     */
+    private static final class Node {
+        final int dataMap;
+        final int nodeMap;
+        final int[] keys;
+        final double[] values;
+        final Node[] nodes;
+
+        Node(int dataMap, int nodeMap, int[] keys, double[] values, Node[] nodes) {
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.keys = keys;
+            this.values = values;
+            this.nodes = nodes;
+        }
+
+        Node withNode(int j, Node child) {
+            Node[] copy = nodes.clone();
+            copy[j] = child;
+            return new Node(dataMap, nodeMap, keys, values, copy);
+        }
+
+        Node insertData(int bit, int key, double value) {
+            int i = index(dataMap, bit);
+            return new Node(dataMap | bit, nodeMap, insert(keys, i, key), insert(values, i, value), nodes);
+        }
+
+        Node removeData(int bit, int i) {
+            return new Node(dataMap & ~bit, nodeMap, delete(keys, i), delete(values, i), nodes);
+        }
+
+        Node dataToNode(int bit, int i, Node child) {
+            int j = index(nodeMap, bit);
+            return new Node(dataMap & ~bit, nodeMap | bit, delete(keys, i), delete(values, i), insert(nodes, j, child));
+        }
+
+        Node nodeToData(int bit, int j, int key, double value) {
+            int i = index(dataMap, bit);
+            return new Node(dataMap | bit, nodeMap & ~bit, insert(keys, i, key), insert(values, i, value), delete(nodes, j));
+        }
+
+        private static int[] insert(int[] a, int at, int value) {
+            int[] copy = new int[a.length + 1];
+            System.arraycopy(a, 0, copy, 0, at);
+            copy[at] = value;
+            System.arraycopy(a, at, copy, at + 1, a.length - at);
+            return copy;
+        }
+
+        private static double[] insert(double[] a, int at, double value) {
+            double[] copy = new double[a.length + 1];
+            System.arraycopy(a, 0, copy, 0, at);
+            copy[at] = value;
+            System.arraycopy(a, at, copy, at + 1, a.length - at);
+            return copy;
+        }
+
+        private static Node[] insert(Node[] a, int at, Node value) {
+            Node[] copy = new Node[a.length + 1];
+            System.arraycopy(a, 0, copy, 0, at);
+            copy[at] = value;
+            System.arraycopy(a, at, copy, at + 1, a.length - at);
+            return copy;
+        }
+
+        private static int[] delete(int[] a, int at) {
+            if (a.length == 1) return NO_KEYS;
+            int[] copy = new int[a.length - 1];
+            System.arraycopy(a, 0, copy, 0, at);
+            System.arraycopy(a, at + 1, copy, at, a.length - at - 1);
+            return copy;
+        }
+
+        private static double[] delete(double[] a, int at) {
+            if (a.length == 1) return NO_VALUES;
+            double[] copy = new double[a.length - 1];
+            System.arraycopy(a, 0, copy, 0, at);
+            System.arraycopy(a, at + 1, copy, at, a.length - at - 1);
+            return copy;
+        }
+
+        private static Node[] delete(Node[] a, int at) {
+            if (a.length == 1) return NO_NODES;
+            Node[] copy = new Node[a.length - 1];
+            System.arraycopy(a, 0, copy, 0, at);
+            System.arraycopy(a, at + 1, copy, at, a.length - at - 1);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+
+/**
+ * 点对点最短路径查询
+ * Point-to-point shortest path queries: early-terminating Dijkstra, bidirectional Dijkstra and A*
+ *
+ * 只关心一个目标顶点时不必确定全图的最短距离：目标一旦出堆即可停止。
+ * 双向搜索从两端同时扩展，A* 用启发函数把搜索引向目标，二者通常都只访问图的一小部分。
+ * 所有方法都要求边权非负。
+ */
+public final class PointToPointSearch {
+
+    private PointToPointSearch() {
+    }
+
+    /**
+     * 启发函数：估计从 vertex 到 target 的剩余距离。
+     * 估计值不超过真实距离（可采纳）且满足 h(u) <= w(u, v) + h(v)（一致）时，A* 的结果才是最短路径。
+     */
+    @FunctionalInterface
+    public interface Heuristic {
+        double estimate(int vertex, int target);
+
+        /**
+         * 恒为 0 的启发函数，此时 A* 退化为提前终止的 Dijkstra
+         */
+        static Heuristic zero() {
+            return (vertex, target) -> 0.0;
+        }
+
+        /**
+         * 基于顶点坐标的欧氏距离启发函数：costPerUnit × 两点间的直线距离。
+         * 当每条边的权重都不小于 costPerUnit × 其两端点的直线距离时，该启发函数是一致的。
+         */
+        static Heuristic euclidean(double[] xs, double[] ys, double costPerUnit) {
+            if (xs.length != ys.length) {
+                throw new IllegalArgumentException("坐标数组长度不一致");
+            }
+            if (!(costPerUnit >= 0)) {
+                throw new IllegalArgumentException("单位距离代价不能为负数");
+            }
+            double[] x = xs.clone();
+            double[] y = ys.clone();
+            return (vertex, target) -> costPerUnit * Math.hypot(x[vertex] - x[target], y[vertex] - y[target]);
+        }
+    }
+
+    /**
+     * 点对点查询结果：距离、路径以及搜索过程中确定的顶点数
+     */
+    public static final class Result {
+        private final double distance;
+        private final List<Integer> path;
+        private final int settledCount;
+
+        Result(double distance, List<Integer> path, int settledCount) {
+            this.distance = distance;
+            this.path = Collections.unmodifiableList(path);
+            this.settledCount = settledCount;
+        }
+
+        /**
+         * 最短距离，不可达时为 Double.POSITIVE_INFINITY
+         */
+        public double getDistance() { return distance; }
+
+        /**
+         * 从源点到目标的顶点序列，不可达时为空列表
+         */
+        public List<Integer> getPath() { return path; }
+
+        /**
+         * 出堆（确定最短距离）的顶点数，用于衡量搜索范围
+         */
+        public int getSettledCount() { return settledCount; }
+
+        public boolean isReachable() { return !Double.isInfinite(distance); }
+    }
+
+    /**
+     * 目标出堆后立即停止的 Dijkstra
+     */
+    public static Result dijkstra(Graph graph, int source, int target) {
+        return aStar(graph, source, target, Heuristic.zero());
+    }
+
+    /**
+     * A* 搜索：堆键为 g(v) + h(v)，启发函数须是一致的
+     */
+    public static Result aStar(Graph graph, int source, int target, Heuristic heuristic) {
+        int n = graph.getNumVertices();
+        checkEndpoints(n, source, target);
+        Objects.requireNonNull(heuristic);
+
+        double[] dist = new double[n];
+        int[] prev = new int[n];
+        boolean[] settled = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+
+        IndexedMinHeap heap = new IndexedDaryHeap(n);
+        dist[source] = 0.0;
+        heap.insert(source, heuristic.estimate(source, target));
+        int settledCount = 0;
+
+        while (!heap.isEmpty()) {
+            int u = heap.extractMin();
+            settled[u] = true;
+            settledCount++;
+            if (u == target) {
+                return new Result(dist[target], buildPath(prev, target), settledCount);
+            }
+            graph.forEachNeighbor(u, (v, w) -> {
+                if (settled[v]) return;
+                double alt = dist[u] + w;
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    prev[v] = u;
+                    heap.insertOrDecrease(v, alt + heuristic.estimate(v, target));
+                }
+            });
+        }
+        return new Result(Double.POSITIVE_INFINITY, Collections.emptyList(), settledCount);
+    }
+
+    /**
+     * 双向 Dijkstra。有向图需要反向图，这里现场构建（O(V + E)）；
+     * 对同一张图多次查询时请使用可传入反向图的重载。
+     */
+    public static Result bidirectional(Graph graph, int source, int target) {
+        Graph reverse = graph.isDirected() ? CSRGraph.transposeOf(graph) : graph;
+        return bidirectional(graph, reverse, source, target);
+    }
+
+    /**
+     * 双向 Dijkstra：正向在 graph 上从 source 扩展，反向在 reverse（graph 的反向图，无向图传入自身）上从 target 扩展。
+     * 每次扩展堆顶键较小的一侧；当两侧堆顶键之和不小于已知的最短相遇距离 mu 时停止。
+     */
+    public static Result bidirectional(Graph graph, Graph reverse, int source, int target) {
+        int n = graph.getNumVertices();
+        checkEndpoints(n, source, target);
+        if (reverse.getNumVertices() != n) {
+            throw new IllegalArgumentException("反向图的顶点数与原图不一致");
+        }
+        if (source == target) {
+            return new Result(0.0, Collections.singletonList(source), 1);
+        }
+
+        Side forward = new Side(graph, n, source);
+        Side backward = new Side(reverse, n, target);
+        // best[0] 为最短相遇距离 mu；meet 为取得 mu 的边 a -> b（a 在正向树中，b 在反向树中）
+        double[] best = { Double.POSITIVE_INFINITY };
+        int[] meet = { -1, -1 };
+        int settledCount = 0;
+
+        while (!forward.heap.isEmpty() && !backward.heap.isEmpty()) {
+            double topForward = forward.heap.keyOf(forward.heap.peekMin());
+            double topBackward = backward.heap.keyOf(backward.heap.peekMin());
+            if (topForward + topBackward >= best[0]) {
+                break;
+            }
+            boolean isForward = topForward <= topBackward;
+            Side side = isForward ? forward : backward;
+            Side other = isForward ? backward : forward;
+
+            int u = side.heap.extractMin();
+            side.settled[u] = true;
+            settledCount++;
+            side.graph.forEachNeighbor(u, (v, w) -> {
+                double alt = side.dist[u] + w;
+                if (!side.settled[v] && alt < side.dist[v]) {
+                    side.dist[v] = alt;
+                    side.prev[v] = u;
+                    side.heap.insertOrDecrease(v, alt);
+                }
+                double through = alt + other.dist[v];
+                if (through < best[0]) {
+                    best[0] = through;
+                    meet[0] = isForward ? u : v;
+                    meet[1] = isForward ? v : u;
+                }
+            });
+        }
+
+        if (Double.isInfinite(best[0])) {
+            return new Result(Double.POSITIVE_INFINITY, Collections.emptyList(), settledCount);
+        }
+        // 正向部分 source..a，加上反向树中 b 沿前驱走到 target 的部分
+        List<Integer> path = buildPath(forward.prev, meet[0]);
+        for (int v = meet[1]; v != -1; v = backward.prev[v]) {
+            path.add(v);
+        }
+        return new Result(best[0], path, settledCount);
+    }
+
+    // 单侧搜索状态
+    private static final class Side {
+        final Graph graph;
+        final double[] dist;
+        final int[] prev;
+        final boolean[] settled;
+        final IndexedMinHeap heap;
+
+        Side(Graph graph, int n, int start) {
+            this.graph = graph;
+            this.dist = new double[n];
+            this.prev = new int[n];
+            this.settled = new boolean[n];
+            this.heap = new IndexedDaryHeap(n);
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(prev, -1);
+            dist[start] = 0.0;
+            heap.insert(start, 0.0);
+        }
+    }
+
+    private static List<Integer> buildPath(int[] prev, int end) {
+        IntStack reversed = new IntStack();
+        for (int v = end; v != -1; v = prev[v]) {
+            reversed.push(v);
+        }
+        List<Integer> path = new ArrayList<>(reversed.size());
+        while (!reversed.isEmpty()) {
+            path.add(reversed.pop());
+        }
+        return path;
+    }
+
+    private static void checkEndpoints(int n, int source, int target) {
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("源点索引越界");
+        }
+        if (target < 0 || target >= n) {
+            throw new IllegalArgumentException("目标顶点索引越界");
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+
+/**
+ * 单源最短路径的算法选择
+ * Picks the fastest valid single-source shortest-path algorithm from a GraphPropertyIndex
+ *
+ * 按以下顺序选择第一个适用的算法：
+ * 1. 所有边权相同且非负：BFS，距离为跳数乘以边权，O(V + E)；
+ * 2. 有向无环图：按拓扑序松弛一遍，O(V + E)，允许负权；
+ * 3. 存在负权边：SPFA（队列优化的 Bellman-Ford），可检测负权回路；
+ * 4. 稠密的矩阵语义图（isMatrixBacked）：数组版 Dijkstra，O(V²)，AdjacencyMatrix 直接扫描矩阵行；
+ * 5. 其余：索引堆 Dijkstra，O((V + E) log V)。
+ * 选择只依赖索引中已维护的属性，不需要再次扫描所有边。各算法的距离完全一致（路径可能因等长而不同）。
+ */
+public final class ShortestPathPlanner {
+
+    public enum Strategy {
+        BFS("BFS（等权）"),
+        DAG("DAG 拓扑序松弛"),
+        BELLMAN_FORD("Bellman-Ford"),
+        DENSE_DIJKSTRA("Dijkstra（数组）"),
+        DIJKSTRA("Dijkstra");
+
+        private final String displayName;
+
+        Strategy(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    private ShortestPathPlanner() {
+    }
+
+    public static Strategy plan(GraphPropertyIndex index) {
+        Graph graph = index.getGraph();
+        if (index.hasUniformWeights() && !index.hasNegativeWeight()) {
+            return Strategy.BFS;
+        }
+        if (graph.isDirected() && index.isAcyclic()) {
+            return Strategy.DAG;
+        }
+        if (index.hasNegativeWeight()) {
+            return Strategy.BELLMAN_FORD;
+        }
+        // 数组版每次扫描一整行，O(V²)；堆版 O(E log V)。E log V 超过 V² 时数组版更快
+        long n = graph.getNumVertices();
+        long edges = graph.isDirected() ? index.getNumEdges() : 2L * index.getNumEdges();
+        if (graph.isMatrixBacked() && edges * log2(n) >= n * n) {
+            return Strategy.DENSE_DIJKSTRA;
+        }
+        return Strategy.DIJKSTRA;
+    }
+
+    /**
+     * 按 plan 的选择求从 source 出发的最短路径
+     */
+    public static MST.ShortestPathResult shortestPaths(GraphPropertyIndex index, int source) {
+        return run(plan(index), index, source);
+    }
+
+    public static MST.ShortestPathResult run(Strategy strategy, GraphPropertyIndex index, int source) {
+        Graph graph = index.getGraph();
+        int n = graph.getNumVertices();
+        if (source < 0 || source >= n) {
+            throw new IllegalArgumentException("源点索引越界");
+        }
+        return switch (strategy) {
+            case BFS -> bfs(graph, source, index.getNumEdges() == 0 ? 0.0 : index.getMinWeight());
+            case DAG -> dag(graph, index.getTopologicalOrder(), source);
+            case BELLMAN_FORD -> MST.spfa(graph, source);
+            case DENSE_DIJKSTRA -> denseDijkstra(graph, source);
+            case DIJKSTRA -> MST.dijkstra(graph, source);
+        };
+    }
+
+    // 等权图：BFS 的层数即最少边数
+    private static MST.ShortestPathResult bfs(Graph graph, int source, double weight) {
+        int n = graph.getNumVertices();
+        int[] hops = new int[n];
+        int[] prev = new int[n];
+        Arrays.fill(hops, -1);
+        Arrays.fill(prev, -1);
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        hops[source] = 0;
+        while (head < tail) {
+            int u = queue[head++];
+            int[] t = { tail };
+            graph.forEachNeighbor(u, (v, w) -> {
+                if (hops[v] < 0) {
+                    hops[v] = hops[u] + 1;
+                    prev[v] = u;
+                    queue[t[0]++] = v;
+                }
+            });
+            tail = t[0];
+        }
+        double[] dist = new double[n];
+        for (int v = 0; v < n; v++) {
+            dist[v] = hops[v] < 0 ? Double.POSITIVE_INFINITY : hops[v] * weight;
+        }
+        return new MST.ShortestPathResult(dist, prev, false);
+    }
+
+    // 有向无环图：按拓扑序依次松弛出边，源点之前的顶点不可达
+    private static MST.ShortestPathResult dag(Graph graph, int[] order, int source) {
+        int n = graph.getNumVertices();
+        double[] dist = new double[n];
+        int[] prev = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+        dist[source] = 0.0;
+        int start = 0;
+        while (order[start] != source) start++;
+        for (int i = start; i < n; i++) {
+            int u = order[i];
+            double du = dist[u];
+            if (du == Double.POSITIVE_INFINITY) continue;
+            graph.forEachNeighbor(u, (v, w) -> {
+                if (du + w < dist[v]) {
+                    dist[v] = du + w;
+                    prev[v] = u;
+                }
+            });
+        }
+        return new MST.ShortestPathResult(dist, prev, false);
+    }
+
+    // 数组版 Dijkstra：每轮线性扫描选出最近的未确定顶点（相同距离取编号较小者，与索引堆一致）。
+    // AdjacencyMatrix 直接扫描底层行，其他矩阵语义的图（如 VersionedGraph）按 forEachNeighbor 松弛
+    private static MST.ShortestPathResult denseDijkstra(Graph graph, int source) {
+        int n = graph.getNumVertices();
+        AdjacencyMatrix matrix = graph instanceof AdjacencyMatrix m ? m : null;
+        double[] dist = new double[n];
+        int[] prev = new int[n];
+        boolean[] settled = new boolean[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+        dist[source] = 0.0;
+        for (int round = 0; round < n; round++) {
+            int u = -1;
+            double best = Double.POSITIVE_INFINITY;
+            for (int v = 0; v < n; v++) {
+                if (!settled[v] && dist[v] < best) {
+                    best = dist[v];
+                    u = v;
+                }
+            }
+            if (u < 0) break;
+            settled[u] = true;
+            if (matrix == null) {
+                final int from = u;
+                final double du = best;
+                graph.forEachNeighbor(u, (v, w) -> {
+                    if (!settled[v] && du + w < dist[v]) {
+                        dist[v] = du + w;
+                        prev[v] = from;
+                    }
+                });
+                continue;
+            }
+            double[] cells = matrix.cells();
+            int base = u * matrix.getCapacity();
+            for (int v = 0; v < n; v++) {
+                double w = cells[base + v];
+                if (w == Double.MAX_VALUE || settled[v]) continue;
+                if (best + w < dist[v]) {
+                    dist[v] = best + w;
+                    prev[v] = u;
+                }
+            }
+        }
+        return new MST.ShortestPathResult(dist, prev, false);
+    }
+
+    private static long log2(long n) {
+        return 64 - Long.numberOfLeadingZeros(Math.max(1, n));
+    }
+}
@@ -0,0 +1,493 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+
+/**
+ * 使用稳定顶点句柄的邻接表图
+ * Adjacency-list graph with stable vertex handles
+ *
+ * 删除顶点时只打上墓碑并把句柄放入空闲链表，其他顶点的句柄保持不变，
+ * 因此删除代价为 O(度数)，不需要像 AdjacencyList 那样重写所有边的顶点编号。
+ * 有向图额外维护入边行，以便删除顶点时直接找到所有指向它的边。
+ *
+ * 算法和视图通过 asGraph() 返回的稠密索引视图使用该图：稠密索引按顶点加入顺序编号，
+ * 与其他 Graph 一致，新顶点总是位于末尾（即使复用了已删除的句柄）。删除顶点只在顺序表中留下空洞，
+ * 删除后首次按稠密索引访问时才压缩（O(顶点数)）。
+ * 标签按句柄保存，但默认标签因访问方式而异：本类的 getVertexLabel(handle) 默认为句柄字符串，
+ * 视图与其他 Graph 一致，默认为稠密索引字符串（删除顶点后会随编号变化）；自定义标签两边相同。
+ * 被删除的句柄可能在之后的 addVertex 中被重新使用；compact() 可消除墓碑。
+ */
+public class StableIdGraph {
+
+    private final boolean isDirected;
+
+    // outRows[h] 为 null 表示句柄 h 是墓碑
+    private AdjacencyRow[] outRows;
+    // 仅有向图使用：inRows[h] 保存指向 h 的边（权重与出边一致）
+    private AdjacencyRow[] inRows;
+    // 按句柄保存的标签；句柄接口的默认标签为句柄本身，视图的默认标签为稠密索引
+    private VertexLabelStore labels = new VertexLabelStore();
+
+    private int handleCount;   // 已分配过的最大句柄 + 1
+    private int liveCount;
+    private int edgeCount;     // 与 getAllEdges().size() 一致
+
+    private int[] freeHandles = new int[4];
+    private int freeCount;
+
+    // 稠密顺序：order[0..orderLength) 按加入顺序保存句柄，删除的顶点留下 -1 空洞，惰性压缩；
+    // slotOf[h] 为句柄 h 在 order 中的位置，没有空洞时即为稠密索引
+    private int[] order = new int[4];
+    private int orderLength;
+    private int[] slotOf;
+    private int holes;
+
+    private final DenseView view;
+
+    public StableIdGraph(boolean isDirected) {
+        this(0, isDirected);
+    }
+
+    public StableIdGraph(int numVertices, boolean isDirected) {
+        this.isDirected = isDirected;
+        int capacity = Math.max(4, numVertices);
+        this.outRows = new AdjacencyRow[capacity];
+        this.inRows = isDirected ? new AdjacencyRow[capacity] : null;
+        this.slotOf = new int[capacity];
+        this.view = new DenseView();
+        for (int i = 0; i < numVertices; i++) {
+            addVertex(null);
+        }
+    }
+
+    public boolean isDirected() {
+        return isDirected;
+    }
+
+    /**
+     * 添加顶点，返回其句柄（优先复用已删除的句柄）；新顶点的稠密索引总是 getVertexCount() - 1
+     */
+    public int addVertex(String label) {
+        int handle;
+        if (freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            if (handleCount == outRows.length) {
+                int newCapacity = outRows.length * 2;
+                outRows = Arrays.copyOf(outRows, newCapacity);
+                if (inRows != null) inRows = Arrays.copyOf(inRows, newCapacity);
+                slotOf = Arrays.copyOf(slotOf, newCapacity);
+            }
+            handle = handleCount++;
+        }
+        if (orderLength == order.length) {
+            // 有空洞时先压缩，否则扩容；顺序表长度因此不超过顶点数的两倍
+            if (holes > 0) {
+                ensureMapping();
+            } else {
+                order = Arrays.copyOf(order, orderLength * 2);
+            }
+        }
+        slotOf[handle] = orderLength;
+        order[orderLength++] = handle;
+        outRows[handle] = new AdjacencyRow();
+        if (inRows != null) inRows[handle] = new AdjacencyRow();
+        labels.set(handle, label);
+        liveCount++;
+        view.syncSize();
+        view.fireVertexAdded(liveCount - 1);
+        return handle;
+    }
+
+    /**
+     * 删除顶点，代价为 O(该顶点的度数)
+     */
+    public void removeVertex(int handle) {
+        checkHandle(handle);
+        int dense = denseForEvent(handle);
+
+        AdjacencyRow out = outRows[handle];
+        for (int i = 0; i < out.size(); i++) {
+            int t = out.targetAt(i);
+            if (t == handle) continue;
+            if (isDirected) {
+                inRows[t].remove(handle);
+            } else {
+                outRows[t].remove(handle);
+                edgeCount--;
+            }
+        }
+        edgeCount -= out.size();
+        if (isDirected) {
+            AdjacencyRow in = inRows[handle];
+            for (int i = 0; i < in.size(); i++) {
+                int s = in.targetAt(i);
+                if (s == handle) continue;
+                outRows[s].remove(handle);
+                edgeCount--;
+            }
+            inRows[handle] = null;
+        }
+
+        labels.set(handle, null);
+        outRows[handle] = null;
+        order[slotOf[handle]] = -1;
+        holes++;
+        if (freeCount == freeHandles.length) {
+            freeHandles = Arrays.copyOf(freeHandles, freeCount * 2);
+        }
+        freeHandles[freeCount++] = handle;
+        liveCount--;
+        view.syncSize();
+        view.fireVertexRemoved(dense);
+    }
+
+    // 事件使用稠密索引；只在有监听器时才计算（可能触发 O(顶点数) 的顺序表压缩）
+    private int denseForEvent(int handle) {
+        return view.hasChangeListeners() ? toDenseIndex(handle) : -1;
+    }
+
+    public boolean isAlive(int handle) {
+        return handle >= 0 && handle < handleCount && outRows[handle] != null;
+    }
+
+    public void addEdge(int source, int destination, double weight) {
+        checkHandle(source);
+        checkHandle(destination);
+
+        AdjacencyRow row = outRows[source];
+        int slot = row.find(destination);
+        double oldWeight = slot >= 0 ? row.weightAt(slot) : Double.NaN;
+        if (row.put(destination, weight)) {
+            edgeCount++;
+        }
+        if (isDirected) {
+            inRows[destination].put(source, weight);
+        } else if (source != destination) {
+            if (outRows[destination].put(source, weight)) {
+                edgeCount++;
+            }
+        }
+        view.fireEdgeChange(denseForEvent(source), denseForEvent(destination), slot >= 0, oldWeight, true, weight);
+    }
+
+    public void removeEdge(int source, int destination) {
+        checkHandle(source);
+        checkHandle(destination);
+
+        AdjacencyRow row = outRows[source];
+        int slot = row.find(destination);
+        double oldWeight = slot >= 0 ? row.weightAt(slot) : Double.NaN;
+        if (row.remove(destination)) {
+            edgeCount--;
+        }
+        if (isDirected) {
+            inRows[destination].remove(source);
+        } else if (source != destination) {
+            if (outRows[destination].remove(source)) {
+                edgeCount--;
+            }
+        }
+        view.fireEdgeChange(denseForEvent(source), denseForEvent(destination), slot >= 0, oldWeight, false, Double.NaN);
+    }
+
+    public boolean hasEdge(int source, int destination) {
+        return isAlive(source) && isAlive(destination) && outRows[source].find(destination) >= 0;
+    }
+
+    public double getWeight(int source, int destination) {
+        if (!isAlive(source) || !isAlive(destination)) {
+            return Double.MAX_VALUE;
+        }
+        AdjacencyRow row = outRows[source];
+        int slot = row.find(destination);
+        return slot >= 0 ? row.weightAt(slot) : Double.MAX_VALUE;
+    }
+
+    /**
+     * 按句柄访问邻接顶点（回调中的顶点也是句柄）
+     */
+    public void forEachNeighbor(int handle, Graph.NeighborVisitor visitor) {
+        if (isAlive(handle)) {
+            outRows[handle].forEach(visitor);
+        }
+    }
+
+    public int getVertexCount() {
+        return liveCount;
+    }
+
+    public int getNumEdges() {
+        return edgeCount;
+    }
+
+    /**
+     * 已分配过的句柄上界（包括墓碑），合法句柄均小于该值
+     */
+    public int getHandleBound() {
+        return handleCount;
+    }
+
+    public String getVertexLabel(int handle) {
+        checkHandle(handle);
+        return labels.get(handle);
+    }
+
+    public void setVertexLabel(int handle, String label) {
+        checkHandle(handle);
+        labels.set(handle, label);
+    }
+
+    /**
+     * 按标签查找顶点句柄，找不到返回 -1
+     */
+    public int findVertexByLabel(String label) {
+        int handle = labels.indexOf(label, handleCount);
+        return isAlive(handle) ? handle : -1;
+    }
+
+    /**
+     * 句柄对应的稠密索引
+     */
+    public int toDenseIndex(int handle) {
+        checkHandle(handle);
+        ensureMapping();
+        return slotOf[handle];
+    }
+
+    /**
+     * 稠密索引对应的句柄
+     */
+    public int toHandle(int denseIndex) {
+        if (denseIndex < 0 || denseIndex >= liveCount) {
+            throw new IllegalArgumentException("顶点索引无效: " + denseIndex);
+        }
+        ensureMapping();
+        return order[denseIndex];
+    }
+
+    /**
+     * 稠密索引视图：可直接交给 MST、GraphAlgorithms 以及可视化面板使用，
+     * 对视图的修改会作用到本图上。
+     */
+    public Graph asGraph() {
+        return view;
+    }
+
+    /**
+     * 消除墓碑：把存活顶点按稠密索引重新编号为 0..n-1（之后句柄与稠密索引相同，视图不变），
+     * 并清空空闲链表。代价为 O(V + E)。返回旧句柄到新句柄的映射（已删除的句柄映射为 -1）。
+     */
+    public int[] compact() {
+        ensureMapping();
+        int[] remap = new int[handleCount];
+        Arrays.fill(remap, -1);
+        int next = liveCount;
+        for (int i = 0; i < next; i++) {
+            remap[order[i]] = i;
+        }
+
+        AdjacencyRow[] newOut = new AdjacencyRow[Math.max(4, next)];
+        AdjacencyRow[] newIn = inRows != null ? new AdjacencyRow[newOut.length] : null;
+        VertexLabelStore newLabels = new VertexLabelStore();
+        for (int h = 0; h < handleCount; h++) {
+            int nh = remap[h];
+            if (nh < 0) continue;
+            newOut[nh] = remapRow(outRows[h], remap);
+            if (newIn != null) newIn[nh] = remapRow(inRows[h], remap);
+            // 只保留自定义标签，默认标签随新句柄与稠密索引变化
+            String label = labels.getCustom(h);
+            if (label != null) {
+                newLabels.setCustom(nh, label);
+            }
+        }
+
+        outRows = newOut;
+        inRows = newIn;
+        labels = newLabels;
+        handleCount = next;
+        freeCount = 0;
+        order = new int[newOut.length];
+        slotOf = new int[newOut.length];
+        for (int i = 0; i < next; i++) {
+            order[i] = i;
+            slotOf[i] = i;
+        }
+        orderLength = next;
+        holes = 0;
+        return remap;
+    }
+
+    private static AdjacencyRow remapRow(AdjacencyRow row, int[] remap) {
+        AdjacencyRow copy = new AdjacencyRow();
+        for (int i = 0; i < row.size(); i++) {
+            copy.put(remap[row.targetAt(i)], row.weightAt(i));
+        }
+        return copy;
+    }
+
+    private void checkHandle(int handle) {
+        if (!isAlive(handle)) {
+            throw new IllegalArgumentException("顶点句柄无效: " + handle);
+        }
+    }
+
+    // 压缩顺序表中的空洞，保持存活顶点的相对顺序
+    private void ensureMapping() {
+        if (holes == 0) return;
+        int next = 0;
+        for (int i = 0; i < orderLength; i++) {
+            int h = order[i];
+            if (h >= 0) {
+                slotOf[h] = next;
+                order[next++] = h;
+            }
+        }
+        orderLength = next;
+        holes = 0;
+    }
+
+    /**
+     * 稠密索引视图
+     */
+    private class DenseView extends Graph {
+
+        DenseView() {
+            super(0, StableIdGraph.this.isDirected);
+        }
+
+        void syncSize() {
+            numVertices = liveCount;
+        }
+
+        private int handle(int dense) {
+            ensureMapping();
+            return order[dense];
+        }
+
+        @Override
+        public void addEdge(int source, int destination, double weight) {
+            if (!isValidVertex(source) || !isValidVertex(destination)) {
+                throw new IllegalArgumentException("顶点索引无效");
+            }
+            StableIdGraph.this.addEdge(handle(source), handle(destination), weight);
+        }
+
+        @Override
+        public void removeEdge(int source, int destination) {
+            if (!isValidVertex(source) || !isValidVertex(destination)) {
+                throw new IllegalArgumentException("顶点索引无效");
+            }
+            StableIdGraph.this.removeEdge(handle(source), handle(destination));
+        }
+
+        @Override
+        public boolean hasEdge(int source, int destination) {
+            if (!isValidVertex(source) || !isValidVertex(destination)) {
+                return false;
+            }
+            return StableIdGraph.this.hasEdge(handle(source), handle(destination));
+        }
+
+        @Override
+        public double getWeight(int source, int destination) {
+            if (!isValidVertex(source) || !isValidVertex(destination)) {
+                return Double.MAX_VALUE;
+            }
+            return StableIdGraph.this.getWeight(handle(source), handle(destination));
+        }
+
+        @Override
+        public List<Integer> getNeighbors(int vertex) {
+            List<Integer> neighbors = new ArrayList<>();
+            forEachNeighbor(vertex, (neighbor, weight) -> neighbors.add(neighbor));
+            return neighbors;
+        }
+
+        @Override
+        public void forEachNeighbor(int vertex, NeighborVisitor visitor) {
+            if (!isValidVertex(vertex)) {
+                return;
+            }
+            AdjacencyRow row = outRows[handle(vertex)];
+            for (int i = 0; i < row.size(); i++) {
+                visitor.visit(slotOf[row.targetAt(i)], row.weightAt(i));
+            }
+        }
+
+        @Override
+        public List<Edge> getAllEdges() {
+            List<Edge> edges = new ArrayList<>(edgeCount);
+            for (int u = 0; u < numVertices; u++) {
+                AdjacencyRow row = outRows[handle(u)];
+                for (int i = 0; i < row.size(); i++) {
+                    edges.add(new Edge(u, slotOf[row.targetAt(i)], row.weightAt(i)));
+                }
+            }
+            return edges;
+        }
+
+        @Override
+        public int getNumEdges() {
+            return edgeCount;
+        }
+
+        @Override
+        public void addVertex(String label) {
+            StableIdGraph.this.addVertex(label);
+        }
+
+        @Override
+        public void removeVertex(int vertex) {
+            if (!isValidVertex(vertex)) {
+                throw new IllegalArgumentException("顶点索引无效: " + vertex);
+            }
+            StableIdGraph.this.removeVertex(handle(vertex));
+        }
+
+        @Override
+        public void setVertexLabel(int vertex, String label) {
+            if (isValidVertex(vertex)) {
+                // 与稠密索引相同的标签视为恢复默认；与句柄相同的标签要按原样保留
+                labels.setCustom(handle(vertex), label == null || label.equals(String.valueOf(vertex)) ? null : label);
+            }
+        }
+
+        @Override
+        public void resetVertexLabelsToIndex() {
+            // 清除自定义标签后，视图中的标签即为稠密索引
+            labels.clear();
+        }
+
+        @Override
+        public int findVertexByLabel(String label) {
+            int handle = labels.indexOfCustom(label, handleCount);
+            if (isAlive(handle)) {
+                return toDenseIndex(handle);
+            }
+            int vertex = label != null ? VertexLabelStore.parseIndex(label) : -1;
+            if (isValidVertex(vertex) && labels.getCustom(handle(vertex)) == null) {
+                return vertex;
+            }
+            return -1;
+        }
+
+        @Override
+        public String getVertexLabel(int vertex) {
+            if (!isValidVertex(vertex)) {
+                return String.valueOf(vertex);
+            }
+            String label = labels.getCustom(handle(vertex));
+            return label != null ? label : String.valueOf(vertex);
+        }
+
+        @Override
+        public Map<Integer, String> getAllVertexLabels() {
+            Map<Integer, String> map = new HashMap<>();
+            for (int u = 0; u < numVertices; u++) {
+                map.put(u, getVertexLabel(u));
+            }
+            return map;
+        }
+    }
+}
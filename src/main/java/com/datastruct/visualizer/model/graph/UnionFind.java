@@ -0,0 +1,135 @@
+package com.datastruct.visualizer.model.graph;
+
+/**
+ * 并查集
+ * Array-based union-find with union by size and optional rollback
+ *
+ * 父指针与集合大小保存在 int 数组中，union 总是把较小的集合挂到较大的集合下（大小相同时挂到编号较小的根下）。
+ * 普通模式下 find 使用路径减半，均摊接近常数；withRollback 创建的实例不压缩路径，
+ * 每次成功的合并都压入历史栈，可以用 checkpoint/rollback 撤销到任意更早的时刻，
+ * 此时树高不超过 O(log n)，find 为 O(log n)。不是线程安全的，并发场景见 ConcurrentUnionFind。
+ */
+public final class UnionFind {
+
+    private final int[] parent;
+    private final int[] size;
+    private int count;
+    // 可撤销模式下记录每次合并时被挂到另一根下的根；普通模式为 null
+    private final IntStack history;
+
+    public UnionFind(int size) {
+        this(size, false);
+    }
+
+    private UnionFind(int n, boolean rollback) {
+        if (n < 0) {
+            throw new IllegalArgumentException("元素个数不能为负数");
+        }
+        this.parent = new int[n];
+        this.size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        this.count = n;
+        this.history = rollback ? new IntStack() : null;
+    }
+
+    /**
+     * 可撤销的并查集（不压缩路径）
+     */
+    public static UnionFind withRollback(int size) {
+        return new UnionFind(size, true);
+    }
+
+    public int size() {
+        return parent.length;
+    }
+
+    /**
+     * 当前集合的个数
+     */
+    public int getComponentCount() {
+        return count;
+    }
+
+    public int find(int x) {
+        if (history != null) {
+            while (parent[x] != x) {
+                x = parent[x];
+            }
+            return x;
+        }
+        // 路径减半：沿途每个节点改为指向祖父节点
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * 合并 a、b 所在的集合；返回 false 表示二者已在同一集合中
+     */
+    public boolean union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) {
+            return false;
+        }
+        if (size[ra] < size[rb] || (size[ra] == size[rb] && rb < ra)) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parent[rb] = ra;
+        size[ra] += size[rb];
+        count--;
+        if (history != null) {
+            history.push(rb);
+        }
+        return true;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * x 所在集合的元素个数
+     */
+    public int componentSize(int x) {
+        return size[find(x)];
+    }
+
+    /**
+     * 当前时刻，供 rollback 使用（即已记录的合并次数）
+     */
+    public int checkpoint() {
+        requireRollback();
+        return history.size();
+    }
+
+    /**
+     * 按相反顺序撤销 checkpoint 之后的所有合并
+     */
+    public void rollback(int checkpoint) {
+        requireRollback();
+        if (checkpoint < 0 || checkpoint > history.size()) {
+            throw new IllegalArgumentException("无效的撤销位置: " + checkpoint);
+        }
+        while (history.size() > checkpoint) {
+            int child = history.pop();
+            int root = parent[child];
+            size[root] -= size[child];
+            parent[child] = child;
+            count++;
+        }
+    }
+
+    private void requireRollback() {
+        if (history == null) {
+            throw new IllegalStateException("该并查集不支持撤销，请使用 UnionFind.withRollback 创建");
+        }
+    }
+}
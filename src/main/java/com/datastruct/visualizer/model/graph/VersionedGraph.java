@@ -0,0 +1,264 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.*;
+
+/**
+ * 支持撤销/重做的可变图
+ * Mutable graph facade over persistent versions with undo/redo
+ *
+ * 内部保存当前的 PersistentGraph，每次修改都替换为新版本。checkpoint() 只记录当前版本的引用（O(1)），
+ * 因此可以把一整批 DSL 编辑作为一个撤销单位，undo()/redo() 也都是 O(1)。
+ * 历史记录最多保留 historyLimit 个版本，超出后丢弃最早的版本。
+ * 由邻接矩阵构建时保留矩阵语义（isMatrixBacked，含对角线），依赖存储类型的显示、序列化与算法选择不受包装影响。
+ */
+public class VersionedGraph extends Graph {
+
+    private static final int DEFAULT_HISTORY_LIMIT = 100;
+
+    private PersistentGraph current;
+    private final Deque<PersistentGraph> undoStack = new ArrayDeque<>();
+    private final Deque<PersistentGraph> redoStack = new ArrayDeque<>();
+    private final int historyLimit;
+
+    public VersionedGraph(int numVertices, boolean isDirected) {
+        this(PersistentGraph.empty(numVertices, isDirected), DEFAULT_HISTORY_LIMIT);
+    }
+
+    public VersionedGraph(PersistentGraph initial, int historyLimit) {
+        super(initial.getNumVertices(), initial.isDirected());
+        if (historyLimit <= 0) {
+            throw new IllegalArgumentException("历史记录数必须为正数");
+        }
+        this.current = initial;
+        this.historyLimit = historyLimit;
+    }
+
+    /**
+     * 以任意图的当前内容作为初始版本（O(V + E)）
+     */
+    public static VersionedGraph of(Graph graph) {
+        return new VersionedGraph(PersistentGraph.fromGraph(graph), DEFAULT_HISTORY_LIMIT);
+    }
+
+    /**
+     * 当前版本，O(1)；之后的修改不会影响返回的快照
+     */
+    public PersistentGraph snapshot() {
+        return current;
+    }
+
+    /**
+     * 记录当前版本作为撤销点，并清空重做记录
+     */
+    public void checkpoint() {
+        if (undoStack.size() == historyLimit) {
+            undoStack.removeLast();
+        }
+        undoStack.push(current);
+        redoStack.clear();
+    }
+
+    /**
+     * 若最近的撤销点之后没有任何修改，则移除该撤销点，返回是否移除
+     */
+    public boolean discardUnchangedCheckpoint() {
+        if (!undoStack.isEmpty() && undoStack.peek() == current) {
+            undoStack.pop();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    /**
+     * 回到最近一个撤销点，返回是否成功
+     */
+    public boolean undo() {
+        if (undoStack.isEmpty()) {
+            return false;
+        }
+        redoStack.push(current);
+        apply(undoStack.pop());
+        fireGraphReset();
+        return true;
+    }
+
+    /**
+     * 重做最近一次撤销，返回是否成功
+     */
+    public boolean redo() {
+        if (redoStack.isEmpty()) {
+            return false;
+        }
+        undoStack.push(current);
+        apply(redoStack.pop());
+        fireGraphReset();
+        return true;
+    }
+
+    /**
+     * 把当前内容替换为指定版本（不记录撤销点，需要时先调用 checkpoint）
+     */
+    public void restore(PersistentGraph version) {
+        apply(Objects.requireNonNull(version));
+        fireGraphReset();
+    }
+
+    /**
+     * 把当前内容替换为另一个图的内容（O(V + E)），有向性也随之改变
+     */
+    public void replaceWith(Graph graph) {
+        apply(PersistentGraph.fromGraph(graph));
+        fireGraphReset();
+    }
+
+    private void apply(PersistentGraph version) {
+        current = version;
+        numVertices = version.getNumVertices();
+        isDirected = version.isDirected();
+    }
+
+    @Override
+    public void addEdge(int source, int destination, double weight) {
+        PersistentGraph before = current;
+        apply(before.withEdge(source, destination, weight));
+        fireEdgeChange(source, destination, before.hasEdge(source, destination),
+                before.getWeight(source, destination), true, weight);
+    }
+
+    @Override
+    public void removeEdge(int source, int destination) {
+        PersistentGraph before = current;
+        apply(before.withoutEdge(source, destination));
+        fireEdgeChange(source, destination, before.hasEdge(source, destination),
+                before.getWeight(source, destination), false, Double.NaN);
+    }
+
+    @Override
+    public boolean hasEdge(int source, int destination) {
+        return current.hasEdge(source, destination);
+    }
+
+    @Override
+    public double getWeight(int source, int destination) {
+        return current.getWeight(source, destination);
+    }
+
+    @Override
+    public List<Integer> getNeighbors(int vertex) {
+        List<Integer> neighbors = new ArrayList<>(current.getDegree(vertex));
+        current.forEachNeighbor(vertex, (neighbor, weight) -> neighbors.add(neighbor));
+        return neighbors;
+    }
+
+    @Override
+    public void forEachNeighbor(int vertex, NeighborVisitor visitor) {
+        current.forEachNeighbor(vertex, visitor);
+    }
+
+    @Override
+    public List<Edge> getAllEdges() {
+        PersistentGraph g = current;
+        List<Edge> edges = new ArrayList<>(g.getNumEdges());
+        for (int u = 0; u < g.getNumVertices(); u++) {
+            final int source = u;
+            g.forEachNeighbor(u, (v, w) -> {
+                if (v != source || !g.isMatrixBacked()) edges.add(new Edge(source, v, w));
+            });
+        }
+        return edges;
+    }
+
+    /**
+     * 与 getAllEdges 一致，矩阵语义下跳过对角线
+     */
+    @Override
+    public void fillEdges(EdgeBuffer buffer) {
+        PersistentGraph g = current;
+        buffer.clear();
+        buffer.ensureCapacity(g.getNumEdges());
+        for (int u = 0; u < g.getNumVertices(); u++) {
+            final int source = u;
+            g.forEachNeighbor(u, (v, w) -> {
+                if (v != source || !g.isMatrixBacked()) buffer.add(source, v, w);
+            });
+        }
+    }
+
+    @Override
+    public boolean isMatrixBacked() {
+        return current.isMatrixBacked();
+    }
+
+    @Override
+    public int getNumEdges() {
+        return current.getNumEdges();
+    }
+
+    @Override
+    public void addVertex(String label) {
+        // 强制标签与索引一致
+        apply(current.withVertex(null).withDefaultLabels());
+        fireVertexAdded(numVertices - 1);
+    }
+
+    @Override
+    public void removeVertex(int vertex) {
+        if (!isValidVertex(vertex)) {
+            throw new IllegalArgumentException("顶点索引无效: " + vertex);
+        }
+        if (numVertices <= 1) {
+            throw new IllegalArgumentException("无法删除最后一个顶点");
+        }
+        // 强制标签与索引一致
+        apply(current.withoutVertex(vertex).withDefaultLabels());
+        fireVertexRemoved(vertex);
+    }
+
+    /* ------------------ 顶点标签（随版本一起撤销） ------------------ */
+
+    @Override
+    public void setVertexLabel(int vertex, String label) {
+        if (isValidVertex(vertex)) {
+            apply(current.withVertexLabel(vertex, label));
+        }
+    }
+
+    @Override
+    public void resetVertexLabelsToIndex() {
+        apply(current.withDefaultLabels());
+    }
+
+    @Override
+    public String getVertexLabel(int vertex) {
+        return current.getVertexLabel(vertex);
+    }
+
+    /**
+     * 线性查找，O(V)
+     */
+    @Override
+    public int findVertexByLabel(String label) {
+        if (label == null) return -1;
+        for (int v = 0; v < numVertices; v++) {
+            if (label.equals(current.getVertexLabel(v))) return v;
+        }
+        return -1;
+    }
+
+    @Override
+    public Map<Integer, String> getAllVertexLabels() {
+        Map<Integer, String> map = new HashMap<>();
+        for (int v = 0; v < numVertices; v++) {
+            map.put(v, current.getVertexLabel(v));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,181 @@
+package com.datastruct.visualizer.model.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 顶点标签存储：数组保存自定义标签，未设置的顶点标签由索引惰性推导
+ * 另外维护一个开放寻址的反向索引（标签 -> 顶点），只包含自定义标签。
+ */
+final class VertexLabelStore {
+
+    private static final String[] NO_LABELS = new String[0];
+
+    // custom[v] 为 null 表示使用默认标签 String.valueOf(v)
+    private String[] custom = NO_LABELS;
+    private int customCount;
+
+    // 反向索引：槽位保存 顶点 + 1，0 表示空
+    private int[] slots = new int[0];
+    private int mask = -1;
+
+    String get(int vertex) {
+        if (vertex >= 0 && vertex < custom.length && custom[vertex] != null) {
+            return custom[vertex];
+        }
+        return String.valueOf(vertex);
+    }
+
+    /**
+     * 自定义标签，未设置时返回 null
+     */
+    String getCustom(int vertex) {
+        return vertex >= 0 && vertex < custom.length ? custom[vertex] : null;
+    }
+
+    /**
+     * 设置标签；null 或与索引相同的标签视为恢复默认
+     */
+    void set(int vertex, String label) {
+        setCustom(vertex, label == null || label.equals(String.valueOf(vertex)) ? null : label);
+    }
+
+    /**
+     * 按原样保存自定义标签（与索引相同也保留），null 表示清除。
+     * 供默认标签不是存储下标的调用方使用，例如 StableIdGraph 的稠密索引视图
+     */
+    void setCustom(int vertex, String label) {
+        if (label == null) {
+            if (vertex < custom.length && custom[vertex] != null) {
+                unindex(vertex);
+                custom[vertex] = null;
+                customCount--;
+            }
+            return;
+        }
+        if (vertex >= custom.length) {
+            custom = Arrays.copyOf(custom, Math.max(vertex + 1, custom.length * 2));
+        }
+        if (custom[vertex] != null) {
+            unindex(vertex);
+        } else {
+            customCount++;
+        }
+        custom[vertex] = label;
+        index(vertex);
+    }
+
+    /**
+     * 清除所有自定义标签；没有自定义标签时为 O(1)
+     */
+    void clear() {
+        if (customCount == 0) return;
+        Arrays.fill(custom, null);
+        Arrays.fill(slots, 0);
+        customCount = 0;
+    }
+
+    /**
+     * 按标签查找顶点：先查自定义标签，再尝试把标签解析为未被自定义的顶点索引。
+     * 找不到返回 -1。
+     */
+    int indexOf(String label, int numVertices) {
+        if (label == null) return -1;
+        int found = indexOfCustom(label, numVertices);
+        if (found >= 0) return found;
+        int v = parseIndex(label);
+        if (v >= 0 && v < numVertices && (v >= custom.length || custom[v] == null)) {
+            return v;
+        }
+        return -1;
+    }
+
+    /**
+     * 只在自定义标签中查找，找不到返回 -1
+     */
+    int indexOfCustom(String label, int numVertices) {
+        if (label == null || customCount == 0) return -1;
+        int i = hash(label) & mask;
+        while (slots[i] != 0) {
+            int v = slots[i] - 1;
+            if (v < numVertices && label.equals(custom[v])) return v;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    Map<Integer, String> toMap(int numVertices) {
+        Map<Integer, String> map = new HashMap<>();
+        for (int i = 0; i < numVertices; i++) {
+            map.put(i, get(i));
+        }
+        return map;
+    }
+
+    private static int hash(String label) {
+        int h = label.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // 只接受规范的十进制写法（无前导零、无符号），与 String.valueOf(int) 一致
+    static int parseIndex(String label) {
+        int len = label.length();
+        if (len == 0 || len > 10 || (len > 1 && label.charAt(0) == '0')) return -1;
+        long value = 0;
+        for (int i = 0; i < len; i++) {
+            char c = label.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value <= Integer.MAX_VALUE ? (int) value : -1;
+    }
+
+    private void index(int vertex) {
+        if (customCount * 2 > slots.length) {
+            // 重建时会一并放入当前顶点
+            rehash(Math.max(8, slots.length * 2));
+            return;
+        }
+        int i = hash(custom[vertex]) & mask;
+        while (slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = vertex + 1;
+    }
+
+    // 后移删除法：删除顶点对应的槽位并修复探测链
+    private void unindex(int vertex) {
+        int i = hash(custom[vertex]) & mask;
+        while (slots[i] != vertex + 1) {
+            i = (i + 1) & mask;
+        }
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (slots[j] == 0) break;
+            int home = hash(custom[slots[j] - 1]) & mask;
+            boolean movable = hole <= j ? (home <= hole || home > j) : (home <= hole && home > j);
+            if (movable) {
+                slots[hole] = slots[j];
+                hole = j;
+            }
+        }
+        slots[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        mask = capacity - 1;
+        for (int v = 0; v < custom.length; v++) {
+            if (custom[v] != null) {
+                int i = hash(custom[v]) & mask;
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = v + 1;
+            }
+        }
+    }
+}
@@ -8,8 +8,6 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
 import java.io.FileWriter;
 import java.io.BufferedWriter;
 
@@ -29,26 +27,25 @@ public class DataSerializer {
         
         // 基本信息
         rootNode.put("type", "graph");
-        rootNode.put("implementation", graph instanceof AdjacencyMatrix ? "matrix" : "list");
+        rootNode.put("implementation", graph.isMatrixBacked() ? "matrix" : "list");
         rootNode.put("numVertices", graph.getNumVertices());
         rootNode.put("isDirected", graph.isDirected());
         
         // 顶点标签
         ObjectNode labelsNode = objectMapper.createObjectNode();
-        Map<Integer, String> labels = graph.getAllVertexLabels();
-        for (Map.Entry<Integer, String> entry : labels.entrySet()) {
-            labelsNode.put(entry.getKey().toString(), entry.getValue());
+        for (int i = 0; i < graph.getNumVertices(); i++) {
+            labelsNode.put(String.valueOf(i), graph.getVertexLabel(i));
         }
         rootNode.set("vertexLabels", labelsNode);
         
         // 边信息
         ArrayNode edgesNode = objectMapper.createArrayNode();
-        List<Edge> edges = graph.getAllEdges();
-        for (Edge edge : edges) {
+        EdgeBuffer edges = graph.getEdgeBuffer();
+        for (int i = 0; i < edges.size(); i++) {
             ObjectNode edgeNode = objectMapper.createObjectNode();
-            edgeNode.put("source", edge.getSource());
-            edgeNode.put("destination", edge.getDestination());
-            edgeNode.put("weight", edge.getWeight());
+            edgeNode.put("source", edges.sourceAt(i));
+            edgeNode.put("destination", edges.destinationAt(i));
+            edgeNode.put("weight", edges.weightAt(i));
             edgesNode.add(edgeNode);
         }
         rootNode.set("edges", edgesNode);
@@ -166,15 +163,14 @@ public class DataSerializer {
         StringBuilder sb = new StringBuilder();
         sb.append("%% Generated by DataSerializer\n");
         sb.append("%% type: graph, implementation: ")
-          .append(graph instanceof AdjacencyMatrix ? "matrix" : "list")
+          .append(graph.isMatrixBacked() ? "matrix" : "list")
           .append("\n");
 
         sb.append(leftToRight ? "graph LR\n" : "graph TD\n");
 
         // 节点定义
-        Map<Integer, String> labels = graph.getAllVertexLabels();
         for (int i = 0; i < graph.getNumVertices(); i++) {
-            String lbl = labels.getOrDefault(i, String.valueOf(i));
+            String lbl = graph.getVertexLabel(i);
             // 转义双引号和方括号
             lbl = lbl.replace("\"", "\\\"").replace("[", "(").replace("]", ")");
             sb.append("v").append(i).append("[")
@@ -182,14 +178,15 @@ public class DataSerializer {
         }
 
         // 边
-        for (Edge e : graph.getAllEdges()) {
-            if (e == null) continue;
-            int a = e.getSource();
-            int b = e.getDestination();
+        EdgeBuffer edges = graph.getEdgeBuffer();
+        for (int i = 0; i < edges.size(); i++) {
+            int a = edges.sourceAt(i);
+            int b = edges.destinationAt(i);
+            double w = edges.weightAt(i);
             String arrow = graph.isDirected() ? " --> " : " -- ";
             String weightLabel = "";
-            if (Math.abs(e.getWeight() - 1.0) > 1e-9) {
-                weightLabel = "|" + String.format("%.2f", e.getWeight()) + "|";
+            if (Math.abs(w - 1.0) > 1e-9) {
+                weightLabel = "|" + String.format("%.2f", w) + "|";
             }
             sb.append("v").append(a).append(arrow).append(weightLabel).append("v").append(b).append("\n");
         }
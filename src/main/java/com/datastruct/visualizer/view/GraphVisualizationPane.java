@@ -1,8 +1,13 @@
 package com.datastruct.visualizer.view;
 
 import com.datastruct.visualizer.model.graph.Edge;
+import com.datastruct.visualizer.model.graph.EdgeBuffer;
 import com.datastruct.visualizer.model.graph.Graph;
+import com.datastruct.visualizer.model.graph.GraphChangeEvent;
+import com.datastruct.visualizer.model.graph.GraphChangeListener;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import javafx.application.Platform;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.input.MouseEvent;
@@ -54,6 +59,12 @@ public class GraphVisualizationPane extends Pane {
     private Set<String> pendingAcceptedEdges;
     // 顶点点击回调（如果设置，点击顶点时会调用）
     private Consumer<Integer> vertexClickHandler;
+    // 绘制时复用的边缓冲区，避免每帧为每条边分配 Edge 对象
+    private final EdgeBuffer edgeBuffer = new EdgeBuffer();
+    // 监听当前图的修改：边变化只重绘，顶点变化才重新布局；多次修改合并为一次重绘
+    private final GraphChangeListener changeListener = this::onGraphChanged;
+    private final AtomicBoolean redrawScheduled = new AtomicBoolean();
+    private volatile boolean layoutStale;
     
     public GraphVisualizationPane() {
         this.canvas = new Canvas(CANVAS_WIDTH, CANVAS_HEIGHT);
@@ -80,10 +91,34 @@ public class GraphVisualizationPane extends Pane {
      * 设置要显示的图
      */
     public void setGraph(Graph graph) {
+        if (this.graph != null) {
+            this.graph.removeChangeListener(changeListener);
+        }
         this.graph = graph;
+        if (graph != null) {
+            graph.addChangeListener(changeListener);
+        }
+        layoutStale = false;
         generateVertexPositions();
         redraw();
     }
+
+    private void onGraphChanged(GraphChangeEvent event) {
+        if (!event.isEdgeEvent()) {
+            layoutStale = true;
+        }
+        // 修改可能来自工作线程，统一在 JavaFX 线程上重绘
+        if (redrawScheduled.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                redrawScheduled.set(false);
+                if (layoutStale) {
+                    layoutStale = false;
+                    generateVertexPositions();
+                }
+                redraw();
+            });
+        }
+    }
     
     /**
      * 生成顶点位置（圆形布局）
@@ -134,14 +169,18 @@ public class GraphVisualizationPane extends Pane {
         gc.setLineWidth(2);
         gc.setFont(Font.font(12));
         
-        for (Edge edge : graph.getAllEdges()) {
-            VertexPosition sourcePos = vertexPositions.get(edge.getSource());
-            VertexPosition destPos = vertexPositions.get(edge.getDestination());
+        graph.fillEdges(edgeBuffer);
+        for (int i = 0; i < edgeBuffer.size(); i++) {
+            int source = edgeBuffer.sourceAt(i);
+            int destination = edgeBuffer.destinationAt(i);
+            double weight = edgeBuffer.weightAt(i);
+            VertexPosition sourcePos = vertexPositions.get(source);
+            VertexPosition destPos = vertexPositions.get(destination);
             
             if (sourcePos == null || destPos == null) continue;
             
             // 设置边的颜色
-            String key = edgeKey(edge);
+            String key = edgeKey(source, destination);
             if (acceptedEdges.contains(key)) {
                 gc.setStroke(acceptedEdgeColor);
             } else if (candidateEdgeKeys.contains(key)) {
@@ -149,7 +188,8 @@ public class GraphVisualizationPane extends Pane {
                 gc.setStroke(highlightColor);
             } else if (consideredEdges.contains(key)) {
                 gc.setStroke(consideredEdgeColor);
-            } else if (highlightedEdges.contains(edge)) {
+            } else if (!highlightedEdges.isEmpty()
+                    && highlightedEdges.contains(new Edge(source, destination, weight))) {
                 gc.setStroke(highlightColor);
             } else {
                 gc.setStroke(edgeColor);
@@ -168,7 +208,7 @@ public class GraphVisualizationPane extends Pane {
             }
             
             // 绘制权重
-            if (edge.getWeight() != 1.0) {
+            if (weight != 1.0) {
                 double midX = (startPoint[0] + endPoint[0]) / 2;
                 double midY = (startPoint[1] + endPoint[1]) / 2;
                 
@@ -176,7 +216,7 @@ public class GraphVisualizationPane extends Pane {
                 gc.fillOval(midX - 15, midY - 8, 30, 16);
                 gc.setFill(textColor);
                 gc.setTextAlign(TextAlignment.CENTER);
-                gc.fillText(String.format("%.1f", edge.getWeight()), midX, midY + 4);
+                gc.fillText(String.format("%.1f", weight), midX, midY + 4);
             }
         }
     }
@@ -336,19 +376,7 @@ public class GraphVisualizationPane extends Pane {
 
         for (Edge e : edges) {
             // 在当前图中寻找对应的 Edge 实例以保证绘制一致
-            Edge matched = null;
-            for (Edge ge : graph.getAllEdges()) {
-                int a = ge.getSource();
-                int b = ge.getDestination();
-                int ea = e.getSource();
-                int eb = e.getDestination();
-
-                if (graph.isDirected()) {
-                    if (a == ea && b == eb) { matched = ge; break; }
-                } else {
-                    if ((a == ea && b == eb) || (a == eb && b == ea)) { matched = ge; break; }
-                }
-            }
+            Edge matched = findGraphEdge(e);
 
             if (matched != null) {
                 String k = edgeKey(matched);
@@ -470,20 +498,7 @@ public class GraphVisualizationPane extends Pane {
             consideredEdges.remove(edgeKey(e));
 
             // 在当前图中寻找对应的 Edge 实例（优先使用图内的实例以保证绘制匹配）
-            Edge matched = null;
-            for (Edge ge : graph.getAllEdges()) {
-                int a = ge.getSource();
-                int b = ge.getDestination();
-                int ea = e.getSource();
-                int eb = e.getDestination();
-
-                if (graph.isDirected()) {
-                    if (a == ea && b == eb) { matched = ge; break; }
-                } else {
-                    // 无向图，允许端点顺序互换匹配
-                    if ((a == ea && b == eb) || (a == eb && b == ea)) { matched = ge; break; }
-                }
-            }
+            Edge matched = findGraphEdge(e);
 
             if (matched != null) {
                 highlightedEdges.add(matched);
@@ -496,11 +511,27 @@ public class GraphVisualizationPane extends Pane {
         redraw();
     }
 
+    /**
+     * 按端点在当前图中查找对应的边（带图中的权重），找不到返回 null。
+     * 无向图允许端点顺序互换，并与按行遍历边集时最先遇到的方向（较小端点在前）保持一致。
+     */
+    private Edge findGraphEdge(Edge e) {
+        int a = e.getSource();
+        int b = e.getDestination();
+        if (!graph.isDirected() && a > b) {
+            int tmp = a; a = b; b = tmp;
+        }
+        if (!graph.hasEdge(a, b)) return null;
+        return new Edge(a, b, graph.getWeight(a, b));
+    }
+
     // 辅助：生成边的唯一键（无向图保持顺序一致）
     private String edgeKey(Edge e) {
         if (e == null) return "";
-        int a = e.getSource();
-        int b = e.getDestination();
+        return edgeKey(e.getSource(), e.getDestination());
+    }
+
+    private String edgeKey(int a, int b) {
         // 对于无向图，保证较小索引在前以便统一键名
         if (!graph.isDirected() && a > b) {
             int tmp = a; a = b; b = tmp;